@@ -0,0 +1,241 @@
+package com.happyorder.base;
+
+import com.happyorder.utils.PropertiesStore;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Timeout theo lịch sử: ghi lại thời gian chờ thực tế của từng locator trên từng trang
+ * (wait-history.properties trong thư mục cache) và tính timeout từ percentile
+ *
+ * timeout = percentile (-Dwait.adaptive.percentile, 95) × hệ số an toàn (-Dwait.adaptive.factor, 3),
+ * không nhỏ hơn -Dwait.adaptive.floor ms và không lớn hơn timeout cấu hình sẵn. Chỉ áp dụng khi
+ * đã có ít nhất -Dwait.adaptive.minSamples mẫu. Hết timeout adaptive là fail; -Dwait.adaptive.grace ms
+ * (mặc định 0, không quá timeout cấu hình) cho chờ thêm trước khi fail. Tắt bằng -Dwait.adaptive=false,
+ * lịch sử lỗi thời thì xoá wait-history.properties.
+ * Cùng dữ liệu đó được xuất thành báo cáo element xuất hiện chậm (test-output/slow-elements.txt).
+ */
+public class AdaptiveTimeouts {
+
+    public static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("wait.adaptive", "true"));
+    public static final double PERCENTILE = Double.parseDouble(System.getProperty("wait.adaptive.percentile", "95"));
+    public static final double SAFETY_FACTOR = Double.parseDouble(System.getProperty("wait.adaptive.factor", "3"));
+    public static final long FLOOR_MILLIS = Long.getLong("wait.adaptive.floor", 2000);
+    public static final int MIN_SAMPLES = Integer.getInteger("wait.adaptive.minSamples", 5);
+    public static final int HISTORY_SIZE = Integer.getInteger("wait.history.size", 50);
+    public static final long GRACE_MILLIS = Long.getLong("wait.adaptive.grace", 0);
+
+    private static final Map<String, History> HISTORY = new ConcurrentHashMap<>();
+    private static volatile PropertiesStore store;
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(AdaptiveTimeouts::save, "wait-history-save"));
+    }
+
+    private AdaptiveTimeouts() {
+    }
+
+    /**
+     * Key của một lần chờ: path của trang (số thay bằng {id}) và mô tả điều kiện
+     */
+    public static String key(String currentUrl, String condition) {
+        String path;
+        try {
+            path = URI.create(currentUrl).getPath();
+        } catch (IllegalArgumentException e) {
+            path = null;
+        }
+        if (path == null || path.isEmpty()) {
+            path = "/";
+        }
+        return path.replaceAll("/\\d+(?=/|$)", "/{id}") + " " + condition;
+    }
+
+    /**
+     * Timeout nên dùng cho {@code key}: từ lịch sử nếu đủ mẫu, ngược lại {@code configured}
+     */
+    public static Duration timeoutFor(String key, Duration configured) {
+        if (!ENABLED) {
+            return configured;
+        }
+        History history = history(key);
+        long adaptive = history.adaptiveMillis();
+        if (adaptive < 0) {
+            return configured;
+        }
+        return Duration.ofMillis(Math.min(configured.toMillis(), adaptive));
+    }
+
+    /**
+     * Thời gian chờ thêm sau khi hết timeout adaptive {@code effective}: -Dwait.adaptive.grace,
+     * không vượt phần còn lại của {@code configured} (0 nếu effective đã là timeout cấu hình)
+     */
+    public static Duration graceFor(Duration effective, Duration configured) {
+        long left = configured.toMillis() - effective.toMillis();
+        return Duration.ofMillis(Math.max(0, Math.min(GRACE_MILLIS, left)));
+    }
+
+    /**
+     * Ghi nhận một lần chờ thành công
+     */
+    public static void recordSuccess(String key, long waitedMillis) {
+        history(key).add(waitedMillis);
+    }
+
+    /**
+     * Ghi nhận một lần chờ hết timeout (cho báo cáo)
+     */
+    public static void recordTimeout(String key) {
+        history(key).timeouts.incrementAndGet();
+    }
+
+    /**
+     * Mô tả timeout adaptive của key (cho thông báo lỗi)
+     */
+    public static String describe(String key) {
+        History history = history(key);
+        return "p" + (int) PERCENTILE + "=" + history.percentile() + " ms over " + history.size() + " samples";
+    }
+
+    // ==================== PERSISTENCE & REPORT ====================
+
+    /**
+     * Lưu lịch sử xuống đĩa (gộp với dữ liệu của JVM khác đang chạy song song)
+     */
+    public static synchronized void save() {
+        if (HISTORY.isEmpty()) {
+            return;
+        }
+        Map<String, String> values = new HashMap<>();
+        HISTORY.forEach((key, history) -> {
+            if (history.isDirty()) {
+                values.put(key, history.serialize());
+            }
+        });
+        if (!values.isEmpty()) {
+            store().putAll(values);
+        }
+    }
+
+    /**
+     * Các element xuất hiện chậm nhất (theo percentile), ghi ra test-output/slow-elements.txt
+     */
+    public static String report(int limit) {
+        List<Map.Entry<String, History>> entries = new ArrayList<>(HISTORY.entrySet());
+        entries.removeIf(entry -> entry.getValue().size() == 0 && entry.getValue().timeouts.get() == 0);
+        entries.sort((a, b) -> Long.compare(b.getValue().percentile(), a.getValue().percentile()));
+
+        StringBuilder report = new StringBuilder(String.format("%-8s %-8s %-8s %-8s %s%n",
+                "p" + (int) PERCENTILE + "(ms)", "max(ms)", "samples", "timeouts", "page / locator"));
+        for (Map.Entry<String, History> entry : entries.subList(0, Math.min(limit, entries.size()))) {
+            History history = entry.getValue();
+            report.append(String.format("%-8d %-8d %-8d %-8d %s%n", history.percentile(), history.max(),
+                    history.size(), history.timeouts.get(), entry.getKey()));
+        }
+
+        Path file = Paths.get(System.getProperty("user.dir"), "test-output", "slow-elements.txt");
+        try {
+            Files.createDirectories(file.getParent());
+            Files.write(file, report.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            System.out.println("Could not write " + file + ": " + e.getMessage());
+        }
+        return report.toString();
+    }
+
+    private static History history(String key) {
+        return HISTORY.computeIfAbsent(key, k -> History.parse(store().get(k)));
+    }
+
+    private static PropertiesStore store() {
+        if (store == null) {
+            synchronized (AdaptiveTimeouts.class) {
+                if (store == null) {
+                    store = PropertiesStore.inCacheDir("wait-history.properties");
+                }
+            }
+        }
+        return store;
+    }
+
+    /**
+     * Các lần chờ gần nhất (ms) của một key
+     */
+    static class History {
+        private final Deque<Long> samples = new ArrayDeque<>();
+        private final AtomicInteger timeouts = new AtomicInteger();
+        private boolean dirty;
+
+        static History parse(String value) {
+            History history = new History();
+            if (value != null && !value.isEmpty()) {
+                Arrays.stream(value.split(",")).map(String::trim).filter(s -> !s.isEmpty())
+                        .forEach(s -> history.samples.addLast(Long.parseLong(s)));
+            }
+            return history;
+        }
+
+        synchronized void add(long millis) {
+            samples.addLast(millis);
+            while (samples.size() > HISTORY_SIZE) {
+                samples.removeFirst();
+            }
+            dirty = true;
+        }
+
+        synchronized int size() {
+            return samples.size();
+        }
+
+        synchronized boolean isDirty() {
+            return dirty;
+        }
+
+        synchronized long percentile() {
+            if (samples.isEmpty()) {
+                return 0;
+            }
+            long[] sorted = samples.stream().mapToLong(Long::longValue).sorted().toArray();
+            int index = (int) Math.ceil(PERCENTILE / 100.0 * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+        }
+
+        synchronized long max() {
+            return samples.stream().mapToLong(Long::longValue).max().orElse(0);
+        }
+
+        synchronized long adaptiveMillis() {
+            if (samples.size() < MIN_SAMPLES) {
+                return -1;
+            }
+            return Math.max(FLOOR_MILLIS, (long) (percentile() * SAFETY_FACTOR));
+        }
+
+        synchronized String serialize() {
+            dirty = false;
+            StringBuilder value = new StringBuilder();
+            for (Long sample : samples) {
+                if (value.length() > 0) {
+                    value.append(',');
+                }
+                value.append(sample);
+            }
+            return value.toString();
+        }
+    }
+}
@@ -1,6 +1,10 @@
 package com.happyorder.base;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
 
 import org.openqa.selenium.By;
 import org.openqa.selenium.JavascriptExecutor;
@@ -15,42 +19,81 @@ import org.openqa.selenium.support.ui.WebDriverWait;
 public class BasePages {
 protected WebDriver driver;
     protected WebDriverWait wait;
+    protected WaitEngine waits;
+    protected ElementCache elements;
 
-    private static final int DEFAULT_TIMEOUT = 10;
+    private static final int DEFAULT_TIMEOUT = WaitEngine.DEFAULT_TIMEOUT;
+
+    /** Điền form bằng một lần gọi JS thay vì gõ phím (xem fillForm), bật bằng -Dform.fastFill=true */
+    public static final boolean FAST_FILL = Boolean.parseBoolean(System.getProperty("form.fastFill", "false"));
+
+    /**
+     * Gán value qua native setter (React/Ant Design theo dõi setter này) rồi bắn event input/change/blur
+     * Trả về index các field không điền được (không tìm thấy, disabled, readonly)
+     */
+    private static final String FAST_FILL_SCRIPT =
+            "var fields = arguments[0], missed = [];"
+                    + WaitEngine.FIND_FUNCTION
+                    + "fields.forEach(function (field, index) {"
+                    + "  var el = null;"
+                    + "  for (var c = 0; c < field[0].length && !el; c++) { el = find(field[0][c], document)[0] || null; }"
+                    + "  if (!el || el.disabled || el.readOnly) { missed.push(index); return; }"
+                    + "  var proto = el instanceof HTMLTextAreaElement ? HTMLTextAreaElement.prototype"
+                    + "      : el instanceof HTMLSelectElement ? HTMLSelectElement.prototype : HTMLInputElement.prototype;"
+                    + "  el.focus();"
+                    + "  Object.getOwnPropertyDescriptor(proto, 'value').set.call(el, field[1]);"
+                    + "  el.dispatchEvent(new Event('input', { bubbles: true }));"
+                    + "  el.dispatchEvent(new Event('change', { bubbles: true }));"
+                    + "  el.blur();"
+                    + "});"
+                    + "return missed;";
 
     public BasePages(WebDriver driver) {
         this.driver = driver;
         this.wait = new WebDriverWait(driver, Duration.ofSeconds(DEFAULT_TIMEOUT));
+        this.waits = new WaitEngine(driver);
+        this.elements = new ElementCache(driver);
+    }
+
+    /**
+     * Dùng WebDriver của thread hiện tại (DriverManager)
+     */
+    public BasePages() {
+        this(DriverManager.getDriver());
     }
 
     // ==================== WAIT METHODS ====================
 
     /**
      * Chờ element visible và return element
+     * Element đã thấy trước đó trên cùng trang được dùng lại nếu vẫn hiển thị (một lần isDisplayed,
+     * không tìm lại), ngược lại chờ lại (xem ElementCache)
      */
     protected WebElement waitForElementVisible(By locator) {
-        return wait.until(ExpectedConditions.visibilityOfElementLocated(locator));
+        return elements.getVisible(locator, () -> waits.visible(locator, Duration.ofSeconds(DEFAULT_TIMEOUT)));
     }
 
     /**
      * Chờ element clickable và return element
+     * Luôn chờ lại (nút có thể đang disabled), element được cache cho các lần dùng sau
      */
     protected WebElement waitForElementClickable(By locator) {
-        return wait.until(ExpectedConditions.elementToBeClickable(locator));
+        Supplier<WebElement> clickable = () -> waits.clickable(locator, Duration.ofSeconds(DEFAULT_TIMEOUT));
+        return elements.put(locator, clickable.get(), clickable);
     }
 
     /**
      * Chờ URL chứa text cụ thể
      */
     protected void waitForUrlToBe(String url) {
-        wait.until(ExpectedConditions.urlToBe(url));
+        waits.until(ExpectedConditions.urlToBe(url), Duration.ofSeconds(DEFAULT_TIMEOUT));
     }
 
     /**
      * Chờ URL chứa text cụ thể
      */
     protected void waitForUrlContains(String urlFragment) {
-        wait.until(ExpectedConditions.urlContains(urlFragment));
+        waits.until(ExpectedConditions.urlContains(urlFragment), Duration.ofSeconds(DEFAULT_TIMEOUT));
     }
 
     // ==================== INPUT METHODS ====================
@@ -59,8 +102,70 @@ protected WebDriver driver;
      * Input text vào field (với wait)
      */
     protected void sendKeys(By locator, String text) {
-        waitForElementVisible(locator).clear();
-        driver.findElement(locator).sendKeys(text);
+        WebElement element = waitForElementVisible(locator);
+        element.clear();
+        element.sendKeys(text);
+    }
+
+    /**
+     * Điền nhiều field theo thứ tự (value null thì bỏ qua field đó)
+     * FAST_FILL: một lần gọi JS cho cả form, không có sự kiện bàn phím thật;
+     * ngược lại gõ từng field bằng sendKeys
+     */
+    protected void fillForm(Map<By, String> values) {
+        if (FAST_FILL) {
+            fastFill(values);
+            return;
+        }
+        values.forEach((locator, value) -> {
+            if (value != null) {
+                sendKeys(locator, value);
+            }
+        });
+    }
+
+    /**
+     * Điền nhiều field trong một lần executeScript (native value setter + event input/change)
+     * Field chưa có trên trang (hoặc disabled) được điền lại bằng sendKeys, có chờ
+     */
+    protected void fastFill(Map<By, String> values) {
+        List<By> locators = new ArrayList<>();
+        List<List<Object>> fields = new ArrayList<>();
+        List<By> typed = new ArrayList<>();
+        values.forEach((locator, value) -> {
+            if (value == null) {
+                return;
+            }
+            if (locator instanceof FallbackLocator) {
+                locators.add(locator);
+                fields.add(List.of(FallbackLocator.toScriptCandidates(((FallbackLocator) locator).getCandidates()), value));
+            } else if (locator instanceof By.Remotable) {
+                locators.add(locator);
+                fields.add(List.of(FallbackLocator.toScriptCandidates(List.of(locator)), value));
+            } else {
+                // ByChained, ByAll... không tìm được trong JS
+                typed.add(locator);
+            }
+        });
+        if (!fields.isEmpty()) {
+            List<?> missed = (List<?>) ((JavascriptExecutor) driver).executeScript(FAST_FILL_SCRIPT, fields);
+            for (Object index : missed) {
+                By locator = locators.get(((Number) index).intValue());
+                System.out.println("Fast fill: " + locator + " not ready, typing instead");
+                typed.add(locator);
+            }
+        }
+        for (By locator : typed) {
+            sendKeys(locator, values.get(locator));
+        }
+    }
+
+    /**
+     * Gõ nhiều field rồi click {@code submit} trong một Actions.perform (một W3C actions command)
+     * Vẫn là sự kiện bàn phím/chuột thật như sendKeys, nhưng không có clear/sendKeys riêng cho từng field
+     */
+    protected void typeAndSubmit(Map<By, String> values, By submit) {
+        new KeyboardInput(driver, elements, this::waitForElementVisible).typeAndSubmit(values, submit);
     }
 
     /**
@@ -78,16 +183,31 @@ protected WebDriver driver;
     }
 
     /**
-     * Check element có hiển thị không
+     * Check element có hiển thị không: chờ tối đa DEFAULT_TIMEOUT giây, trả về ngay khi thấy
+     * (không chờ implicit wait, xem WaitEngine)
      */
     protected boolean isElementDisplayed(By locator) {
         try {
-            return driver.findElement(locator).isDisplayed();
+            return waits.isDisplayed(locator, Duration.ofSeconds(DEFAULT_TIMEOUT));
         } catch (Exception e) {
             return false;
         }
     }
 
+    /**
+     * Check element không xuất hiện (ví dụ không có thông báo lỗi)
+     */
+    protected boolean isElementNotDisplayed(By locator) {
+        return waits.staysAbsent(locator);
+    }
+
+    /**
+     * Trạng thái của nhiều element trong một lần gọi JS (xem PageSnapshot)
+     */
+    protected PageSnapshot snapshot(Map<String, By> locators, String... cssProperties) {
+        return PageSnapshot.take(driver, locators, cssProperties);
+    }
+
     // ==================== DROPDOWN METHODS ====================
 
     /**
@@ -114,10 +234,16 @@ protected WebDriver driver;
 
     /**
      * Lấy text của toast message/notification (sử dụng JavaScript)
+     * Capture mode (-Dtoast.capture=true): đọc toast đầu tiên khớp locator đã ghi lại trong trang,
+     * kể cả toast đã tự đóng (xem ToastCapture)
      */
     public String getToastMessageText(By locator) {
+        ToastCapture capture = ToastCapture.forDriver(driver);
+        if (capture != null && ToastCapture.canMatch(locator)) {
+            return capturedToastText(capture, locator, DEFAULT_TIMEOUT);
+        }
         try {
-            WebElement messageElement = wait.until(ExpectedConditions.visibilityOfElementLocated(locator));
+            WebElement messageElement = waits.visible(locator, Duration.ofSeconds(DEFAULT_TIMEOUT));
             JavascriptExecutor js = (JavascriptExecutor) driver;
             String message = (String) js.executeScript("return arguments[0].innerText;", messageElement);
             return message.trim();
@@ -134,9 +260,12 @@ protected WebDriver driver;
      * Lấy toast message với custom timeout
      */
     public String getToastMessageText(By locator, int timeoutInSeconds) {
+        ToastCapture capture = ToastCapture.forDriver(driver);
+        if (capture != null && ToastCapture.canMatch(locator)) {
+            return capturedToastText(capture, locator, timeoutInSeconds);
+        }
         try {
-            WebDriverWait customWait = new WebDriverWait(driver, Duration.ofSeconds(timeoutInSeconds));
-            WebElement messageElement = customWait.until(ExpectedConditions.visibilityOfElementLocated(locator));
+            WebElement messageElement = waits.visible(locator, Duration.ofSeconds(timeoutInSeconds));
             JavascriptExecutor js = (JavascriptExecutor) driver;
             String message = (String) js.executeScript("return arguments[0].innerText;", messageElement);
             return message.trim();
@@ -147,6 +276,15 @@ protected WebDriver driver;
         }
     }
 
+    private String capturedToastText(ToastCapture capture, By locator, int timeoutInSeconds) {
+        ToastCapture.Toast toast = capture.await(locator, Duration.ofSeconds(timeoutInSeconds));
+        if (toast == null) {
+            System.err.println("Lỗi: Không có toast message nào sau " + timeoutInSeconds + " giây.");
+            return "";
+        }
+        return toast.getText();
+    }
+
     // ==================== CSS/STYLE METHODS ====================
 
     /**
@@ -160,7 +298,13 @@ protected WebDriver driver;
      * Check element có border color cụ thể không (dùng cho validation)
      */
     protected boolean hasRedBorder(By locator) {
-        String borderColor = getCssValue(locator, "border-color");
+        return isValidationBorder(getCssValue(locator, "border-color"));
+    }
+
+    /**
+     * Màu viền đỏ validation (Bootstrap danger)
+     */
+    static boolean isValidationBorder(String borderColor) {
         return borderColor.equals("rgb(220, 53, 69)") || borderColor.contains("#dc3545");
     }
 
@@ -186,7 +330,7 @@ protected WebDriver driver;
      * Click bằng JavaScript (khi click thông thường không hoạt động)
      */
     protected void clickByJS(By locator) {
-        WebElement element = driver.findElement(locator);
+        WebElement element = elements.find(locator);
         JavascriptExecutor js = (JavascriptExecutor) driver;
         js.executeScript("arguments[0].click();", element);
     }
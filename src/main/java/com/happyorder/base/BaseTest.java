@@ -1,80 +1,105 @@
 package com.happyorder.base;
 
-import io.github.bonigarcia.wdm.WebDriverManager;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
-import org.openqa.selenium.edge.EdgeDriver;
-import org.openqa.selenium.firefox.FirefoxDriver;
 import org.testng.annotations.AfterMethod;
+import org.testng.annotations.AfterSuite;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.BeforeSuite;
 import org.testng.annotations.Parameters;
 
+import java.lang.reflect.Method;
 import java.time.Duration;
 
 public class BaseTest {
-    protected WebDriver driver;
     protected static final int IMPLICIT_WAIT = 10;
     protected static final int PAGE_LOAD_TIMEOUT = 30;
+    protected static final boolean LAZY_DRIVER = Boolean.parseBoolean(System.getProperty("driver.lazy", "true"));
+
+    @BeforeSuite(alwaysRun = true)
+    @Parameters({"browser"})
+    public void setupSuite(@org.testng.annotations.Optional("chrome") String browser) {
+        // Dọn Chrome/chromedriver còn sót của run bị ngắt trước đó
+        ProcessTracker.reapOrphans();
+        // Mở trước các session ở background trong lúc TestNG đọc data provider
+        BrowserPool.start(browser, BrowserPool.POOL_SIZE);
+    }
 
     @BeforeClass
-    public void setupClass() {
-        // Cấu hình ChromeDriver sử dụng WebDriverManager (tự động tải và thiết lập)
-        WebDriverManager.chromedriver().setup();
+    @Parameters({"browser"})
+    public void setupClass(@org.testng.annotations.Optional("chrome") String browser) {
+        if (getClass().isAnnotationPresent(NoBrowser.class)) {
+            return;
+        }
+        // Tìm driver binary một lần cho cả JVM (manifest trên đĩa, chạy được offline)
+        DriverBinaryResolver.resolve(BrowserProfiles.get(browser).getBrowser());
     }
-   
+
     @BeforeMethod
     @Parameters({"browser"})
-    public void setUp(@org.testng.annotations.Optional("chrome") String browser) {
-        driver = initializeDriver(browser);
-        driver.manage().window().maximize();
-        driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(IMPLICIT_WAIT));
-        driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(PAGE_LOAD_TIMEOUT));
+    public void setUp(@org.testng.annotations.Optional("chrome") String browser, Method method) {
+        if (method.isAnnotationPresent(NoBrowser.class) || getClass().isAnnotationPresent(NoBrowser.class)) {
+            DriverManager.skipSession(method.getName());
+            return;
+        }
+
+        // Mỗi thread có session riêng (xem DriverManager)
+        // Lazy mode: browser chỉ được mở khi test gọi getDriver() lần đầu
+        DriverManager.requestSession(browser, this::configureDriver);
+        if (!LAZY_DRIVER) {
+            DriverManager.getDriver();
+        }
+        // Ngân sách thời gian cho test này (mỗi dòng data provider có ngân sách riêng)
+        TestDeadline.start(method.getName(), Duration.ofSeconds(TestDeadline.BUDGET_SECONDS));
     }
 
     @AfterMethod
     public void tearDown() {
-        if (driver != null) {
-            driver.quit();
-        }
+        TestDeadline.finish();
+        // Reuse mode: reset session thay vì quit
+        DriverManager.releaseSession();
     }
 
-    private WebDriver initializeDriver(String browser) {
-        WebDriver driver;
-
-        switch (browser.toLowerCase()) {
-            case "chrome":
-                WebDriverManager.chromedriver().setup();
-                ChromeOptions chromeOptions = new ChromeOptions();
-                chromeOptions.addArguments("--start-maximized");
-                chromeOptions.addArguments("--disable-notifications");
-                driver = new ChromeDriver(chromeOptions);
-                break;
-
-            case "firefox":
-                WebDriverManager.firefoxdriver().setup();
-                driver = new FirefoxDriver();
-                break;
-
-            case "edge":
-                WebDriverManager.edgedriver().setup();
-                driver = new EdgeDriver();
-                break;
+    @AfterSuite(alwaysRun = true)
+    public void tearDownSuite() {
+        if (BrowserPool.isEnabled()) {
+            System.out.println("Browser pool metrics: " + BrowserPool.metrics());
+        }
+        System.out.println("Element cache: " + ElementCache.metrics());
+        System.out.println("Read cache: " + ReadCache.metrics());
+        DriverManager.quitAll();
+        if (ProcessTracker.ENABLED) {
+            System.out.println("Browser resource usage: " + ProcessTracker.report());
+        }
+        AdaptiveTimeouts.save();
+        System.out.println("Slowest waits (test-output/slow-elements.txt):\n" + AdaptiveTimeouts.report(10));
+        if (LocatorProfiler.ENABLED) {
+            System.out.println("Costliest locators (test-output/locator-profile.txt):\n" + LocatorProfiler.report(20));
+        }
+    }
 
-            case "chrome-headless":
-                WebDriverManager.chromedriver().setup();
-                ChromeOptions headlessOptions = new ChromeOptions();
-                headlessOptions.addArguments("--headless");
-                headlessOptions.addArguments("--disable-gpu");
-                headlessOptions.addArguments("--window-size=1920,1080");
-                driver = new ChromeDriver(headlessOptions);
-                break;
+    /**
+     * Cấu hình session mới tạo (session dùng lại ở reuse mode đã được cấu hình từ lần đầu)
+     */
+    protected void configureDriver(WebDriver driver) {
+        driver.manage().window().maximize();
+        driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(IMPLICIT_WAIT));
+        driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(PAGE_LOAD_TIMEOUT));
+    }
 
-            default:
-                throw new IllegalArgumentException("Browser \"" + browser + "\" is not supported.");
-        }
+    /**
+     * WebDriver của thread đang chạy test
+     */
+    protected WebDriver getDriver() {
+        return DriverManager.getDriver();
+    }
 
-        return driver;
+    /**
+     * Mở trang cần test ở trạng thái đã đăng nhập, không phải đăng nhập lại qua UI mỗi test
+     * (xem SessionStateCache). Suite gọi hàm này thay cho driver.get(targetUrl), ví dụ HomeTest
+     * khi chạy với -Dhome.username=... -Dhome.password=... loginUrl và targetUrl phải cùng origin.
+     */
+    protected void openLoggedIn(String loginUrl, String username, String password, String targetUrl) {
+        SessionStateCache.openLoggedIn(getDriver(), loginUrl, username, password, targetUrl);
     }
 }
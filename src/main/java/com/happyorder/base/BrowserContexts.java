@@ -0,0 +1,184 @@
+package com.happyorder.base;
+
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.ChromiumDriver;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Contexts mode (-Ddriver.mode=contexts): nhiều test dùng chung một process Chrome,
+ * mỗi test có một browser context riêng (CDP Target.createBrowserContext)
+ *
+ * Browser context cách ly cookies, storage và cache như một profile riêng nhưng không
+ * tốn thêm một process Chrome. Mỗi context được một ChromeDriver nhẹ attach vào qua
+ * debuggerAddress, nên các test vẫn chạy song song với session WebDriver độc lập.
+ *
+ * ChromeDriver attach vào thấy tab của mọi context trong process (getWindowHandles), nên các
+ * thao tác đóng/reset cửa sổ của session chỉ dùng các tab thuộc browserContextId của nó
+ * (CDP Target.getTargets). Watchdog không kill được process trong mode này: Chrome dùng chung
+ * với test khác và session không có process marker, session chết/treo chỉ bị đánh dấu dead
+ * (command sau đó fail ngay) rồi context bị huỷ khi quit.
+ */
+public class BrowserContexts {
+
+    public static final boolean ENABLED = "contexts".equalsIgnoreCase(System.getProperty("driver.mode", "sessions"));
+    public static final int CONTEXTS_PER_PROCESS = Integer.getInteger("driver.contexts.perProcess", 8);
+
+    private static final List<Host> HOSTS = new ArrayList<>();
+
+    private BrowserContexts() {
+    }
+
+    /**
+     * Mở một browser context mới và trả về session WebDriver gắn với nó
+     */
+    public static DriverSession open(String profileName) {
+        BrowserProfile profile = BrowserProfiles.get(profileName);
+        if (!"chrome".equals(profile.getBrowser())) {
+            throw new IllegalArgumentException("Contexts mode needs a chrome profile, got \"" + profileName + "\"");
+        }
+
+        Host host = reserveHost(profile.getName());
+        try {
+            String contextId;
+            String targetId;
+            synchronized (host) {
+                ChromiumDriver hostDriver = host.getDriver();
+                contextId = (String) hostDriver.executeCdpCommand("Target.createBrowserContext",
+                        Map.of("disposeOnDetach", false)).get("browserContextId");
+                targetId = (String) hostDriver.executeCdpCommand("Target.createTarget",
+                        Map.of("url", "about:blank", "browserContextId", contextId)).get("targetId");
+            }
+
+            ChromeOptions options = new ChromeOptions();
+            options.setExperimentalOption("debuggerAddress", host.debuggerAddress);
+            ChromeDriver driver = new ChromeDriver(options);
+            // Window handle của chromedriver chính là target id
+            driver.switchTo().window(targetId);
+
+            return new ContextSession(driver, profile.getName(), host, contextId);
+        } catch (RuntimeException e) {
+            host.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Đóng toàn bộ process Chrome dùng chung
+     */
+    public static synchronized void shutdown() {
+        for (Host host : HOSTS) {
+            host.session.quit();
+        }
+        HOSTS.clear();
+    }
+
+    private static synchronized Host reserveHost(String profileName) {
+        for (Host host : HOSTS) {
+            if (host.profileName.equals(profileName) && host.openContexts < CONTEXTS_PER_PROCESS
+                    && host.session.isHealthy()) {
+                host.openContexts++;
+                return host;
+            }
+        }
+
+        Host host = new Host(profileName, DriverFactory.createSession(profileName));
+        host.openContexts++;
+        HOSTS.add(host);
+        System.out.println("Started shared Chrome for contexts mode at " + host.debuggerAddress
+                + " (" + HOSTS.size() + " process(es))");
+        return host;
+    }
+
+    /**
+     * Một process Chrome chứa nhiều browser context
+     */
+    private static class Host {
+        private final String profileName;
+        private final DriverSession session;
+        private final String debuggerAddress;
+        private int openContexts;
+
+        @SuppressWarnings("unchecked")
+        Host(String profileName, DriverSession session) {
+            this.profileName = profileName;
+            this.session = session;
+            Map<String, Object> chromeOptions = (Map<String, Object>) ((HasCapabilities) session.getRawDriver())
+                    .getCapabilities().getCapability("goog:chromeOptions");
+            this.debuggerAddress = (String) chromeOptions.get("debuggerAddress");
+        }
+
+        ChromiumDriver getDriver() {
+            return (ChromiumDriver) session.getRawDriver();
+        }
+
+        void release() {
+            synchronized (BrowserContexts.class) {
+                openContexts--;
+            }
+        }
+    }
+
+    /**
+     * Session gắn với một browser context; quit() chỉ huỷ context, không đóng Chrome
+     */
+    private static class ContextSession extends DriverSession {
+        private final Host host;
+        private final String contextId;
+
+        ContextSession(ChromeDriver driver, String profileName, Host host, String contextId) {
+            super(driver, profileName);
+            this.host = host;
+            this.contextId = contextId;
+        }
+
+        /**
+         * Chỉ các tab thuộc browser context của session, không phải mọi tab của process Chrome
+         */
+        @Override
+        @SuppressWarnings("unchecked")
+        protected Set<String> windowHandles() {
+            List<Map<String, Object>> targets;
+            synchronized (host) {
+                targets = (List<Map<String, Object>>) host.getDriver()
+                        .executeCdpCommand("Target.getTargets", Map.of()).get("targetInfos");
+            }
+            Set<String> own = new LinkedHashSet<>();
+            for (Map<String, Object> target : targets) {
+                if ("page".equals(target.get("type")) && contextId.equals(target.get("browserContextId"))) {
+                    own.add((String) target.get("targetId"));
+                }
+            }
+            // Window handle của chromedriver chính là target id
+            own.retainAll(getDriver().getWindowHandles());
+            return own;
+        }
+
+        @Override
+        public boolean isReusable() {
+            // Tạo context mới rẻ hơn reset, và reset sẽ đụng tới tab của context khác
+            return false;
+        }
+
+        @Override
+        public void quit() {
+            try {
+                synchronized (host) {
+                    host.getDriver().executeCdpCommand("Target.disposeBrowserContext",
+                            Map.of("browserContextId", contextId));
+                }
+            } catch (Exception e) {
+                System.err.println("Không huỷ được browser context " + contextId + ": " + e.getMessage());
+            } finally {
+                super.quit();
+                host.release();
+            }
+        }
+    }
+}
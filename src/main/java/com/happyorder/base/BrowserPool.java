@@ -0,0 +1,208 @@
+package com.happyorder.base;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool browser khởi động trước (pre-warmed)
+ * Các session được mở ở background ngay từ @BeforeSuite, trong lúc TestNG còn đang
+ * đọc data provider, rồi được giao cho test ở @BeforeMethod
+ *
+ * Bật bằng -Ddriver.pool.size=N (mặc định 0 = tắt)
+ */
+public class BrowserPool {
+
+    public static final int POOL_SIZE = Integer.getInteger("driver.pool.size", 0);
+    private static final int LEASE_WAIT_SECONDS = Integer.getInteger("driver.pool.leaseWait", 60);
+
+    private static final LinkedBlockingDeque<DriverSession> IDLE = new LinkedBlockingDeque<>();
+    private static final AtomicInteger LEASED = new AtomicInteger();
+    private static final AtomicInteger WARMING = new AtomicInteger();
+    private static final AtomicInteger WARMED = new AtomicInteger();
+    private static final AtomicLong TOTAL_WARMUP_MILLIS = new AtomicLong();
+
+    private static volatile String browser;
+    private static volatile int size;
+    private static volatile ExecutorService warmers;
+
+    private BrowserPool() {
+    }
+
+    /**
+     * Bắt đầu mở {@code size} session ở background
+     */
+    public static synchronized void start(String browserName, int size) {
+        if (size <= 0 || warmers != null) {
+            return;
+        }
+        browser = browserName;
+        BrowserPool.size = size;
+        warmers = Executors.newFixedThreadPool(size, runnable -> {
+            Thread thread = new Thread(runnable, "browser-pool-warmer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 0; i < size; i++) {
+            warmOne();
+        }
+        System.out.println("Browser pool started: warming " + size + " " + browserName + " session(s)");
+    }
+
+    public static boolean isEnabled() {
+        return warmers != null;
+    }
+
+    /**
+     * Lấy một session đã warm cho browser yêu cầu
+     * Nếu chưa có session idle nhưng đang có session khởi động thì chờ nó,
+     * vì nó đã đi được một phần đường. Session idle đã chết bị đóng và thử session tiếp theo.
+     *
+     * @return session hoặc null nếu pool tắt / khác browser / không còn session nào dùng được
+     */
+    public static DriverSession lease(String browserName) {
+        if (!isEnabled() || !browserName.equalsIgnoreCase(browser)) {
+            return null;
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(LEASE_WAIT_SECONDS);
+        DriverSession session;
+        while ((session = nextIdle(deadline)) != null && !session.isHealthy()) {
+            System.out.println("Discarding unhealthy pooled " + browser + " session");
+            session.quit();
+            replenish();
+        }
+        if (session == null) {
+            return null;
+        }
+
+        LEASED.incrementAndGet();
+        session.setPooled(true);
+        replenish();
+        return session;
+    }
+
+    /**
+     * Session idle tiếp theo, chờ session đang khởi động (tới {@code deadline}) nếu chưa có
+     */
+    private static DriverSession nextIdle(long deadline) {
+        DriverSession session = IDLE.pollFirst();
+        try {
+            while (session == null && WARMING.get() > 0 && System.nanoTime() < deadline) {
+                session = IDLE.pollFirst(200, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return session;
+    }
+
+    /**
+     * DriverManager gọi khi session lấy từ pool bị đóng
+     */
+    static void onSessionClosed(DriverSession session) {
+        if (session.isPooled()) {
+            session.setPooled(false);
+            LEASED.decrementAndGet();
+            // Session bị recycle/thay thế: warm bù một session trong giới hạn pool
+            replenish();
+        }
+    }
+
+    /**
+     * Dừng warm và đóng mọi session idle
+     */
+    public static synchronized void shutdown() {
+        if (warmers == null) {
+            return;
+        }
+        warmers.shutdownNow();
+        warmers = null;
+        DriverSession session;
+        while ((session = IDLE.pollFirst()) != null) {
+            session.quit();
+        }
+        System.out.println("Browser pool stopped: " + metrics());
+    }
+
+    // ==================== METRICS ====================
+
+    public static int getIdleCount() {
+        return IDLE.size();
+    }
+
+    public static int getLeasedCount() {
+        return LEASED.get();
+    }
+
+    public static int getWarmingCount() {
+        return WARMING.get();
+    }
+
+    /**
+     * Thời gian khởi động trung bình của một session (ms)
+     */
+    public static long getAverageWarmupMillis() {
+        int warmed = WARMED.get();
+        return warmed == 0 ? 0 : TOTAL_WARMUP_MILLIS.get() / warmed;
+    }
+
+    public static String metrics() {
+        return "idle=" + getIdleCount()
+                + ", leased=" + getLeasedCount()
+                + ", warming=" + getWarmingCount()
+                + ", warmed=" + WARMED.get()
+                + ", avgWarmupMs=" + getAverageWarmupMillis();
+    }
+
+    /**
+     * Warm thêm session cho tới khi idle + đang warm + đang được dùng bằng kích thước pool
+     * Không bao giờ mở quá số browser của pool, nên các test cuối suite không mở browser thừa
+     */
+    private static synchronized void replenish() {
+        while (isEnabled() && IDLE.size() + WARMING.get() + LEASED.get() < size) {
+            int warming = WARMING.get();
+            warmOne();
+            if (WARMING.get() == warming) {
+                return;
+            }
+        }
+    }
+
+    private static void warmOne() {
+        ExecutorService executor = warmers;
+        if (executor == null || executor.isShutdown()) {
+            return;
+        }
+        WARMING.incrementAndGet();
+        try {
+            executor.submit(BrowserPool::warmSession);
+        } catch (RejectedExecutionException e) {
+            WARMING.decrementAndGet();
+        }
+    }
+
+    private static void warmSession() {
+        try {
+            long start = System.nanoTime();
+            DriverSession session = DriverFactory.createSession(browser);
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            TOTAL_WARMUP_MILLIS.addAndGet(elapsed);
+            WARMED.incrementAndGet();
+
+            if (warmers == null) {
+                session.quit();
+            } else {
+                IDLE.offerLast(session);
+            }
+        } catch (Exception e) {
+            System.err.println("Không warm được session " + browser + ": " + e.getMessage());
+        } finally {
+            WARMING.decrementAndGet();
+        }
+    }
+}
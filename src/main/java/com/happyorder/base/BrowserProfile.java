@@ -0,0 +1,94 @@
+package com.happyorder.base;
+
+import org.openqa.selenium.PageLoadStrategy;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.edge.EdgeDriver;
+import org.openqa.selenium.edge.EdgeOptions;
+import org.openqa.selenium.firefox.FirefoxDriver;
+import org.openqa.selenium.firefox.FirefoxOptions;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Một browser profile khai báo trong browser-profiles.properties
+ */
+public class BrowserProfile {
+
+    private final String name;
+    private final String browser;
+    private final List<String> arguments;
+    private final PageLoadStrategy pageLoadStrategy;
+
+    public BrowserProfile(String name, String browser, List<String> arguments, PageLoadStrategy pageLoadStrategy) {
+        this.name = name;
+        this.browser = browser.toLowerCase();
+        this.arguments = Collections.unmodifiableList(new ArrayList<>(arguments));
+        this.pageLoadStrategy = pageLoadStrategy;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getBrowser() {
+        return browser;
+    }
+
+    public List<String> getArguments() {
+        return arguments;
+    }
+
+    public PageLoadStrategy getPageLoadStrategy() {
+        return pageLoadStrategy;
+    }
+
+    /**
+     * Chrome và Edge nhận thêm argument đánh dấu để tìm lại process của session
+     */
+    public boolean isChromium() {
+        return "chrome".equals(browser) || "edge".equals(browser);
+    }
+
+    /**
+     * Khởi động browser theo profile
+     *
+     * @param extraArguments argument bổ sung (ví dụ marker của session)
+     */
+    public WebDriver start(List<String> extraArguments) {
+        DriverBinaryResolver.resolve(browser);
+
+        switch (browser) {
+            case "chrome":
+                ChromeOptions chromeOptions = new ChromeOptions();
+                chromeOptions.addArguments(arguments);
+                chromeOptions.addArguments(extraArguments);
+                chromeOptions.setPageLoadStrategy(pageLoadStrategy);
+                return new ChromeDriver(chromeOptions);
+
+            case "edge":
+                EdgeOptions edgeOptions = new EdgeOptions();
+                edgeOptions.addArguments(arguments);
+                edgeOptions.addArguments(extraArguments);
+                edgeOptions.setPageLoadStrategy(pageLoadStrategy);
+                return new EdgeDriver(edgeOptions);
+
+            case "firefox":
+                FirefoxOptions firefoxOptions = new FirefoxOptions();
+                firefoxOptions.addArguments(arguments);
+                firefoxOptions.setPageLoadStrategy(pageLoadStrategy);
+                return new FirefoxDriver(firefoxOptions);
+
+            default:
+                throw new IllegalArgumentException("Browser \"" + browser + "\" of profile \"" + name + "\" is not supported.");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + browser + " " + String.join(" ", arguments) + ")";
+    }
+}
@@ -0,0 +1,76 @@
+package com.happyorder.base;
+
+import org.openqa.selenium.PageLoadStrategy;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Registry các browser profile đọc từ browser-profiles.properties trên classpath
+ * (có thể thay bằng file ngoài qua -Dbrowser.profiles=/path/to/file.properties)
+ */
+public class BrowserProfiles {
+
+    private static final String RESOURCE = "browser-profiles.properties";
+    private static final Map<String, BrowserProfile> PROFILES = load();
+
+    private BrowserProfiles() {
+    }
+
+    /**
+     * Lấy profile theo tên (không phân biệt hoa thường)
+     */
+    public static BrowserProfile get(String name) {
+        BrowserProfile profile = PROFILES.get(name.toLowerCase());
+        if (profile == null) {
+            throw new IllegalArgumentException("Browser \"" + name + "\" is not supported. Known profiles: "
+                    + PROFILES.keySet());
+        }
+        return profile;
+    }
+
+    public static Map<String, BrowserProfile> all() {
+        return Collections.unmodifiableMap(PROFILES);
+    }
+
+    private static Map<String, BrowserProfile> load() {
+        Properties properties = new Properties();
+        String external = System.getProperty("browser.profiles");
+        try (InputStream in = external != null
+                ? new FileInputStream(external)
+                : BrowserProfiles.class.getClassLoader().getResourceAsStream(RESOURCE)) {
+            if (in == null) {
+                throw new IllegalStateException(RESOURCE + " not found on classpath");
+            }
+            properties.load(new InputStreamReader(in, StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not read browser profiles: " + e.getMessage(), e);
+        }
+
+        Map<String, BrowserProfile> profiles = new TreeMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            if (!key.endsWith(".browser")) {
+                continue;
+            }
+            String name = key.substring(0, key.length() - ".browser".length());
+            String browser = properties.getProperty(key).trim();
+            List<String> arguments = Arrays.stream(properties.getProperty(name + ".arguments", "").trim().split("\\s+"))
+                    .filter(argument -> !argument.isEmpty())
+                    .collect(Collectors.toList());
+            PageLoadStrategy strategy = PageLoadStrategy.fromString(
+                    properties.getProperty(name + ".pageLoadStrategy", "normal").trim());
+            profiles.put(name.toLowerCase(), new BrowserProfile(name, browser, arguments, strategy));
+        }
+        return profiles;
+    }
+}
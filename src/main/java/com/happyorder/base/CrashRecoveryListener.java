@@ -0,0 +1,24 @@
+package com.happyorder.base;
+
+import org.testng.IAnnotationTransformer;
+import org.testng.annotations.ITestAnnotation;
+import org.testng.internal.annotations.DisabledRetryAnalyzer;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+
+/**
+ * Gắn CrashRetryAnalyzer cho mọi test chưa khai báo retryAnalyzer riêng
+ * Đăng ký trong testng.xml (&lt;listeners&gt;)
+ */
+public class CrashRecoveryListener implements IAnnotationTransformer {
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public void transform(ITestAnnotation annotation, Class testClass, Constructor testConstructor, Method testMethod) {
+        Class<?> current = annotation.getRetryAnalyzerClass();
+        if (current == null || current == DisabledRetryAnalyzer.class) {
+            annotation.setRetryAnalyzer(CrashRetryAnalyzer.class);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.happyorder.base;
+
+import org.testng.IRetryAnalyzer;
+import org.testng.ITestResult;
+
+/**
+ * Chạy lại test bị fail do browser chết (crash, treo, mất kết nối chromedriver)
+ *
+ * Chỉ retry lỗi hạ tầng, assertion fail vẫn fail ngay. Lần chạy lại đi qua @BeforeMethod
+ * như bình thường nên được session mới (session chết không qua được health check).
+ * Số lần retry: -Ddriver.crashRetries (mặc định 1).
+ */
+public class CrashRetryAnalyzer implements IRetryAnalyzer {
+
+    public static final int MAX_RETRIES = Integer.getInteger("driver.crashRetries", 1);
+
+    private int retries;
+
+    @Override
+    public boolean retry(ITestResult result) {
+        if (retries >= MAX_RETRIES || !DriverWatchdog.isSessionDeath(result.getThrowable())) {
+            return false;
+        }
+        retries++;
+        System.err.println("Browser session died in " + result.getMethod().getMethodName()
+                + ", retrying with a fresh session (" + retries + "/" + MAX_RETRIES + ")");
+        return true;
+    }
+}
@@ -0,0 +1,300 @@
+package com.happyorder.base;
+
+import com.happyorder.utils.PropertiesStore;
+import io.github.bonigarcia.wdm.WebDriverManager;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Tìm đường dẫn driver binary (chromedriver, geckodriver, msedgedriver) một lần cho mỗi JVM
+ * thay vì gọi WebDriverManager.setup() cho mỗi test
+ *
+ * Thứ tự tìm:
+ * 1. System property có sẵn (-Dwebdriver.chrome.driver=...)
+ * 2. Manifest lưu trên đĩa, key theo browser + major version (~/.happyorder/driver-manifest.properties)
+ * 3. Thư mục binary dựng sẵn (-Ddriver.binary.dir) hoặc PATH
+ * 4. WebDriverManager (tắt bằng -Ddriver.offline=true), kết quả được ghi vào manifest
+ *
+ * Manifest trúng thì không tốn request mạng nào. Không tìm được ở bước nào thì không set property,
+ * để Selenium Manager của Selenium tự tìm driver khi tạo session.
+ */
+public class DriverBinaryResolver {
+
+    public static final boolean OFFLINE = Boolean.parseBoolean(System.getProperty("driver.offline", "false"));
+
+    private static final Pattern VERSION = Pattern.compile("(\\d+)(\\.\\d+)+");
+    private static final Map<String, String> RESOLVED = new ConcurrentHashMap<>();
+    private static volatile PropertiesStore manifest;
+
+    private DriverBinaryResolver() {
+    }
+
+    /**
+     * Đảm bảo system property của driver đã được set cho browser (chrome, firefox, edge)
+     *
+     * @return đường dẫn driver, hoặc null nếu không tìm được (Selenium Manager sẽ tự xử lý)
+     */
+    public static String resolve(String browser) {
+        String path = RESOLVED.computeIfAbsent(driverType(browser), DriverBinaryResolver::lookup);
+        return path.isEmpty() ? null : path;
+    }
+
+    private static String lookup(String type) {
+        long start = System.currentTimeMillis();
+        String property = systemProperty(type);
+
+        String existing = System.getProperty(property);
+        if (isExecutable(existing)) {
+            return existing;
+        }
+
+        String version = detectBrowserVersion(type);
+        String key = type + "." + (version == null ? "unknown" : majorVersion(version));
+
+        String path = getManifest().get(key);
+        String source = "manifest";
+        if (!isExecutable(path)) {
+            path = findLocalBinary(type, version);
+            source = "local";
+        }
+        if (path == null && !OFFLINE) {
+            path = downloadWithWebDriverManager(type);
+            source = "WebDriverManager";
+        }
+
+        if (path == null) {
+            System.out.println("No " + driverName(type) + " found for " + key + " in the manifest "
+                    + getManifest().getFile() + ", -Ddriver.binary.dir or PATH"
+                    + (OFFLINE ? " (offline mode)" : " and WebDriverManager could not download it")
+                    + ", leaving resolution to Selenium Manager");
+            return "";
+        }
+
+        System.setProperty(property, path);
+        if (!"manifest".equals(source)) {
+            getManifest().putAll(Map.of(key, path, key + ".browserVersion", String.valueOf(version)));
+        }
+        System.out.println("Resolved " + driverName(type) + " for " + key + " from " + source
+                + " in " + (System.currentTimeMillis() - start) + " ms: " + path);
+        return path;
+    }
+
+    // ==================== BROWSER VERSION ====================
+
+    /**
+     * Đọc version browser cài trên máy bằng lệnh --version (không cần mạng)
+     */
+    static String detectBrowserVersion(String type) {
+        for (List<String> command : versionCommands(type)) {
+            String output = run(command);
+            if (output != null) {
+                Matcher matcher = VERSION.matcher(output);
+                if (matcher.find()) {
+                    return matcher.group();
+                }
+            }
+        }
+        return null;
+    }
+
+    private static List<List<String>> versionCommands(String type) {
+        String os = System.getProperty("os.name").toLowerCase();
+        if (os.contains("win")) {
+            String regKey;
+            switch (type) {
+                case "firefox":
+                    regKey = "HKEY_LOCAL_MACHINE\\SOFTWARE\\Mozilla\\Mozilla Firefox";
+                    return List.of(List.of("reg", "query", regKey, "/v", "CurrentVersion"));
+                case "edge":
+                    regKey = "HKEY_CURRENT_USER\\Software\\Microsoft\\Edge\\BLBeacon";
+                    break;
+                default:
+                    regKey = "HKEY_CURRENT_USER\\Software\\Google\\Chrome\\BLBeacon";
+            }
+            return List.of(List.of("reg", "query", regKey, "/v", "version"));
+        }
+
+        List<String> binaries;
+        if (os.contains("mac")) {
+            switch (type) {
+                case "firefox":
+                    binaries = List.of("/Applications/Firefox.app/Contents/MacOS/firefox");
+                    break;
+                case "edge":
+                    binaries = List.of("/Applications/Microsoft Edge.app/Contents/MacOS/Microsoft Edge");
+                    break;
+                default:
+                    binaries = List.of("/Applications/Google Chrome.app/Contents/MacOS/Google Chrome");
+            }
+        } else {
+            switch (type) {
+                case "firefox":
+                    binaries = List.of("firefox");
+                    break;
+                case "edge":
+                    binaries = List.of("microsoft-edge", "microsoft-edge-stable");
+                    break;
+                default:
+                    binaries = List.of("google-chrome", "google-chrome-stable", "chromium", "chromium-browser");
+            }
+        }
+
+        List<List<String>> commands = new ArrayList<>();
+        for (String binary : binaries) {
+            commands.add(List.of(binary, "--version"));
+        }
+        return commands;
+    }
+
+    // ==================== LOCAL BINARIES ====================
+
+    /**
+     * Tìm driver trong -Ddriver.binary.dir (dạng &lt;dir&gt;/&lt;major&gt;/chromedriver
+     * hoặc &lt;dir&gt;/chromedriver) rồi tới PATH
+     */
+    private static String findLocalBinary(String type, String version) {
+        String fileName = driverName(type) + (isWindows() ? ".exe" : "");
+
+        String binaryDir = System.getProperty("driver.binary.dir");
+        if (binaryDir != null) {
+            if (version != null) {
+                File versioned = new File(new File(binaryDir, majorVersion(version)), fileName);
+                if (isExecutable(versioned.getPath())) {
+                    return versioned.getAbsolutePath();
+                }
+            }
+            File flat = new File(binaryDir, fileName);
+            if (isExecutable(flat.getPath())) {
+                return flat.getAbsolutePath();
+            }
+        }
+
+        String path = System.getenv("PATH");
+        if (path != null) {
+            for (String dir : path.split(File.pathSeparator)) {
+                File candidate = new File(dir, fileName);
+                if (isExecutable(candidate.getPath())) {
+                    return candidate.getAbsolutePath();
+                }
+            }
+        }
+        return null;
+    }
+
+    private static String downloadWithWebDriverManager(String type) {
+        try {
+            WebDriverManager manager;
+            switch (type) {
+                case "firefox":
+                    manager = WebDriverManager.firefoxdriver();
+                    break;
+                case "edge":
+                    manager = WebDriverManager.edgedriver();
+                    break;
+                default:
+                    manager = WebDriverManager.chromedriver();
+            }
+            manager.setup();
+            return manager.getDownloadedDriverPath();
+        } catch (Exception e) {
+            System.out.println("WebDriverManager could not resolve " + driverName(type) + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    // ==================== HELPERS ====================
+
+    private static PropertiesStore getManifest() {
+        if (manifest == null) {
+            synchronized (DriverBinaryResolver.class) {
+                if (manifest == null) {
+                    String file = System.getProperty("driver.manifest");
+                    manifest = file != null
+                            ? new PropertiesStore(new File(file).toPath())
+                            : PropertiesStore.inCacheDir("driver-manifest.properties");
+                }
+            }
+        }
+        return manifest;
+    }
+
+    private static String driverType(String browser) {
+        String name = browser.toLowerCase();
+        if (name.startsWith("firefox")) {
+            return "firefox";
+        }
+        if (name.startsWith("edge")) {
+            return "edge";
+        }
+        return "chrome";
+    }
+
+    private static String systemProperty(String type) {
+        switch (type) {
+            case "firefox":
+                return "webdriver.gecko.driver";
+            case "edge":
+                return "webdriver.edge.driver";
+            default:
+                return "webdriver.chrome.driver";
+        }
+    }
+
+    private static String driverName(String type) {
+        switch (type) {
+            case "firefox":
+                return "geckodriver";
+            case "edge":
+                return "msedgedriver";
+            default:
+                return "chromedriver";
+        }
+    }
+
+    private static String majorVersion(String version) {
+        return version.split("\\.")[0];
+    }
+
+    private static boolean isExecutable(String path) {
+        return path != null && !path.isEmpty() && new File(path).canExecute();
+    }
+
+    private static boolean isWindows() {
+        return System.getProperty("os.name").toLowerCase().contains("win");
+    }
+
+    private static String run(List<String> command) {
+        try {
+            Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+            StringBuilder output = new StringBuilder();
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    output.append(line).append('\n');
+                }
+            }
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+                return null;
+            }
+            return process.exitValue() == 0 ? output.toString() : null;
+        } catch (IOException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.happyorder.base;
+
+import org.openqa.selenium.WebDriver;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tạo WebDriver mới theo browser profile (xem browser-profiles.properties)
+ */
+public class DriverFactory {
+
+    /** Prefix của argument đánh dấu process Chrome/Edge thuộc session nào */
+    public static final String SESSION_MARKER = "--happyorder-session=";
+
+    private static final boolean LOG_METRICS = Boolean.parseBoolean(System.getProperty("profile.metrics", "true"));
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    private DriverFactory() {
+    }
+
+    /**
+     * Driver của session hiện tại của thread, tạo mới nếu cần; session được DriverManager
+     * quản lý (release/quit sau test) như mọi session khác
+     */
+    public static WebDriver createDriver(String browser) {
+        return DriverManager.acquireSession(browser).getDriver();
+    }
+
+    /**
+     * Khởi tạo session theo tên profile, đo thời gian cold start và RSS của browser
+     * (chỉ DriverManager, BrowserPool, BrowserContexts gọi; session chưa được đăng ký với DriverManager)
+     */
+    static DriverSession createSession(String profileName) {
+        BrowserProfile profile = BrowserProfiles.get(profileName);
+        String marker = profile.isChromium()
+                ? SESSION_MARKER + ProcessHandle.current().pid() + "-" + SEQUENCE.incrementAndGet()
+                : null;
+
+        long start = System.nanoTime();
+        WebDriver driver = profile.start(marker == null ? List.of() : List.of(marker));
+        long coldStartMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        DriverSession session = new DriverSession(driver, profile.getName(), marker, coldStartMillis);
+        ProcessTracker.track(session);
+        if (LOG_METRICS) {
+            long rssKb = session.getRssKb();
+            System.out.println("Browser profile '" + profile.getName() + "' cold start: " + coldStartMillis + " ms, RSS: "
+                    + (rssKb < 0 ? "n/a" : (rssKb / 1024) + " MB"));
+        }
+        return session;
+    }
+}
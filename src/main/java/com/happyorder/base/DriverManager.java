@@ -0,0 +1,213 @@
+package com.happyorder.base;
+
+import org.openqa.selenium.WebDriver;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Giữ WebDriver riêng cho từng thread (ThreadLocal)
+ * Cho phép TestNG chạy parallel="methods" và @DataProvider(parallel = true)
+ * mà các session không ghi đè lên nhau
+ *
+ * Reuse mode (-Ddriver.reuse=true): session không bị quit sau mỗi test mà được reset
+ * và dùng lại, chỉ thay mới sau -Ddriver.maxUses lần hoặc khi health check thất bại
+ */
+public class DriverManager {
+
+    public static final boolean REUSE = Boolean.parseBoolean(System.getProperty("driver.reuse", "false"));
+    public static final int MAX_USES = Integer.getInteger("driver.maxUses", 25);
+
+    private static final ThreadLocal<DriverSession> SESSION = new ThreadLocal<>();
+    private static final ThreadLocal<SessionRequest> REQUEST = new ThreadLocal<>();
+    private static final Set<DriverSession> ALL_SESSIONS = ConcurrentHashMap.newKeySet();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(DriverManager::quitAll, "driver-shutdown"));
+    }
+
+    private DriverManager() {
+    }
+
+    /**
+     * Lấy WebDriver của thread hiện tại
+     * Lazy provisioning: nếu test đã đăng ký session (requestSession) thì browser
+     * chỉ được mở ở lần gọi đầu tiên này
+     */
+    public static WebDriver getDriver() {
+        SessionRequest request = REQUEST.get();
+        if (request != null) {
+            if (request.noBrowserReason != null) {
+                throw new IllegalStateException(request.noBrowserReason);
+            }
+            if (!request.acquired) {
+                DriverSession session = acquireSession(request.browser);
+                request.acquired = true;
+                if (session.isNew() && request.configurer != null) {
+                    request.configurer.accept(session.getDriver());
+                }
+                return session.getDriver();
+            }
+        }
+
+        DriverSession session = SESSION.get();
+        if (session == null) {
+            throw new IllegalStateException("No WebDriver for thread \"" + Thread.currentThread().getName()
+                    + "\". Was BaseTest.setUp() executed?");
+        }
+        return session.getDriver();
+    }
+
+    /**
+     * Đăng ký browser cho test sắp chạy, session được mở khi test gọi getDriver() lần đầu
+     *
+     * @param configurer cấu hình session mới tạo (window, timeouts)
+     */
+    public static void requestSession(String browser, Consumer<WebDriver> configurer) {
+        REQUEST.set(new SessionRequest(browser, configurer, null));
+    }
+
+    /**
+     * Test không cần browser: mọi lần gọi getDriver() sẽ báo lỗi thay vì mở Chrome
+     */
+    public static void skipSession(String testName) {
+        REQUEST.set(new SessionRequest(null, null,
+                "Test \"" + testName + "\" is marked @NoBrowser and cannot use a WebDriver"));
+    }
+
+    /**
+     * Test hiện tại đã mở (hoặc lấy lại) browser chưa
+     */
+    public static boolean isSessionAcquired() {
+        SessionRequest request = REQUEST.get();
+        return request == null ? SESSION.get() != null : request.acquired;
+    }
+
+    /**
+     * Session của thread hiện tại (null nếu chưa có)
+     */
+    public static DriverSession getSession() {
+        return SESSION.get();
+    }
+
+    /**
+     * Gán WebDriver cho thread hiện tại
+     */
+    public static void setDriver(WebDriver driver) {
+        quitDriver();
+        DriverSession session = new DriverSession(driver, "custom");
+        session.markUsed();
+        register(session);
+    }
+
+    /**
+     * Thread hiện tại đã có WebDriver chưa
+     */
+    public static boolean hasDriver() {
+        return SESSION.get() != null;
+    }
+
+    /**
+     * Lấy session cho test sắp chạy: dùng lại session còn khoẻ của thread (reuse mode),
+     * mở browser context mới (contexts mode), lấy session đã warm từ BrowserPool,
+     * hoặc tạo mới qua DriverFactory
+     */
+    public static DriverSession acquireSession(String browser) {
+        DriverSession session = SESSION.get();
+        if (session != null) {
+            if (session.getBrowser().equalsIgnoreCase(browser) && session.isHealthy()) {
+                session.markUsed();
+                return session;
+            }
+            quitDriver();
+        }
+
+        session = BrowserContexts.ENABLED ? BrowserContexts.open(browser) : BrowserPool.lease(browser);
+        if (session == null) {
+            session = DriverFactory.createSession(browser);
+        }
+        session.markUsed();
+        register(session);
+        return session;
+    }
+
+    /**
+     * Gọi sau mỗi test: reuse mode thì reset để dùng lại, ngược lại quit
+     */
+    public static void releaseSession() {
+        SessionRequest request = REQUEST.get();
+        REQUEST.remove();
+        if (request != null && !request.acquired) {
+            // Test không đụng tới browser, không có gì để reset
+            return;
+        }
+
+        DriverSession session = SESSION.get();
+        if (session == null) {
+            return;
+        }
+
+        if (!REUSE || !session.isReusable()) {
+            quitDriver();
+            return;
+        }
+
+        if (session.getUses() >= MAX_USES) {
+            System.out.println("Recycling " + session.getBrowser() + " session after " + session.getUses() + " uses");
+            quitDriver();
+        } else if (!session.reset() || !session.isHealthy()) {
+            System.out.println("Session " + session.getBrowser() + " is unhealthy, it will be replaced");
+            quitDriver();
+        }
+    }
+
+    /**
+     * Đóng browser của thread hiện tại và xoá khỏi ThreadLocal
+     */
+    public static void quitDriver() {
+        DriverSession session = SESSION.get();
+        SESSION.remove();
+        if (session != null) {
+            ALL_SESSIONS.remove(session);
+            BrowserPool.onSessionClosed(session);
+            session.quit();
+        }
+    }
+
+    /**
+     * Đóng mọi session còn sống (cuối suite hoặc khi JVM tắt)
+     */
+    public static void quitAll() {
+        BrowserPool.shutdown();
+        for (DriverSession session : ALL_SESSIONS) {
+            ALL_SESSIONS.remove(session);
+            BrowserPool.onSessionClosed(session);
+            session.quit();
+        }
+        BrowserContexts.shutdown();
+        ProcessTracker.reapOwn();
+        SESSION.remove();
+    }
+
+    private static void register(DriverSession session) {
+        SESSION.set(session);
+        ALL_SESSIONS.add(session);
+    }
+
+    /**
+     * Browser mà test hiện tại đã đăng ký
+     */
+    private static class SessionRequest {
+        private final String browser;
+        private final Consumer<WebDriver> configurer;
+        private final String noBrowserReason;
+        private boolean acquired;
+
+        SessionRequest(String browser, Consumer<WebDriver> configurer, String noBrowserReason) {
+            this.browser = browser;
+            this.configurer = configurer;
+            this.noBrowserReason = noBrowserReason;
+        }
+    }
+}
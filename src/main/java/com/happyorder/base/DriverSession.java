@@ -0,0 +1,273 @@
+package com.happyorder.base;
+
+import com.happyorder.utils.ProcessUtils;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.ChromiumDriver;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Một browser session cùng thông tin dùng để tái sử dụng (số lần dùng, cửa sổ chính)
+ */
+public class DriverSession {
+
+    private final WebDriver rawDriver;
+    private final WebDriver driver;
+    private final DriverWatchdog watchdog;
+    private final ReadCache readCache = new ReadCache();
+    private final NavigationEpoch navigationEpoch = new NavigationEpoch();
+    private final String browser;
+    private final long createdAt;
+    private final String processMarker;
+    private final long startupMillis;
+    private String mainWindow;
+    private int uses;
+    private volatile boolean pooled;
+    private NetworkMonitor networkMonitor;
+    private boolean networkMonitorAttached;
+    private ToastCapture toastCapture;
+
+    public DriverSession(WebDriver driver, String browser) {
+        this(driver, browser, null, -1);
+    }
+
+    public DriverSession(WebDriver driver, String browser, String processMarker, long startupMillis) {
+        this.rawDriver = driver;
+        this.watchdog = new DriverWatchdog(this);
+        WebDriverListener[] listeners = LocatorProfiler.ENABLED
+                ? new WebDriverListener[]{navigationEpoch, new LocatorProfiler()}
+                : new WebDriverListener[]{navigationEpoch};
+        this.driver = new EventFiringDecorator<>(listeners).decorate(watchdog.watch(readCache.wrap(driver)));
+        this.browser = browser;
+        this.processMarker = processMarker;
+        this.startupMillis = startupMillis;
+        this.createdAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Driver đã được DriverWatchdog giám sát (theo dõi điều hướng, cache lệnh đọc), test luôn dùng driver này
+     */
+    public WebDriver getDriver() {
+        return driver;
+    }
+
+    /**
+     * Driver gốc (ChromeDriver, FirefoxDriver...), dùng cho CDP và kiểm tra kiểu driver
+     */
+    public WebDriver getRawDriver() {
+        return rawDriver;
+    }
+
+    public DriverWatchdog getWatchdog() {
+        return watchdog;
+    }
+
+    /**
+     * Bộ đếm điều hướng của session (ElementCache dùng để bỏ handle cũ)
+     */
+    public NavigationEpoch getNavigationEpoch() {
+        return navigationEpoch;
+    }
+
+    public String getBrowser() {
+        return browser;
+    }
+
+    public long getCreatedAt() {
+        return createdAt;
+    }
+
+    /**
+     * Argument đánh dấu process browser của session (null nếu không phải Chromium)
+     */
+    public String getProcessMarker() {
+        return processMarker;
+    }
+
+    /**
+     * Thời gian khởi động browser (ms), -1 nếu không đo
+     */
+    public long getStartupMillis() {
+        return startupMillis;
+    }
+
+    /**
+     * Các process browser (gồm process con) của session
+     */
+    public List<ProcessHandle> getBrowserProcesses() {
+        if (processMarker == null) {
+            return List.of();
+        }
+        return ProcessUtils.withDescendants(ProcessUtils.findByArgument(processMarker));
+    }
+
+    /**
+     * Process browser của session cùng process chromedriver/msedgedriver điều khiển nó
+     */
+    public List<ProcessHandle> getProcessTree() {
+        List<ProcessHandle> processes = new ArrayList<>(getBrowserProcesses());
+        // Process cha của Chrome chính là chromedriver của session
+        processes.stream()
+                .map(process -> process.parent().orElse(null))
+                .filter(parent -> parent != null && parent.info().command().map(cmd -> cmd.contains("driver")).orElse(false))
+                .findFirst()
+                .ifPresent(processes::add);
+        return processes;
+    }
+
+    /**
+     * Tổng RSS (KB) của browser, -1 nếu không đo được
+     */
+    public long getRssKb() {
+        return ProcessUtils.totalRssKb(getBrowserProcesses());
+    }
+
+    /**
+     * Theo dõi network của session (bật ở lần gọi đầu), null nếu browser không hỗ trợ CDP
+     */
+    public synchronized NetworkMonitor getNetworkMonitor() {
+        if (!networkMonitorAttached) {
+            networkMonitorAttached = true;
+            networkMonitor = NetworkMonitor.attach(rawDriver);
+        }
+        return networkMonitor;
+    }
+
+    /**
+     * Buffer toast của session (cài vào mọi document mới từ lần gọi đầu)
+     */
+    public synchronized ToastCapture getToastCapture() {
+        if (toastCapture == null) {
+            toastCapture = ToastCapture.attach(rawDriver, driver);
+        }
+        return toastCapture;
+    }
+
+    public int getUses() {
+        return uses;
+    }
+
+    /**
+     * Session được lấy từ BrowserPool
+     */
+    public boolean isPooled() {
+        return pooled;
+    }
+
+    void setPooled(boolean pooled) {
+        this.pooled = pooled;
+    }
+
+    /**
+     * Session có thể reset để dùng lại cho test sau (reuse mode)
+     */
+    public boolean isReusable() {
+        return true;
+    }
+
+    /**
+     * Session vừa được tạo, chưa qua test nào
+     */
+    public boolean isNew() {
+        return uses <= 1;
+    }
+
+    /**
+     * Đánh dấu session được một test sử dụng
+     */
+    void markUsed() {
+        uses++;
+        if (mainWindow == null) {
+            mainWindow = driver.getWindowHandle();
+        }
+    }
+
+    /**
+     * Health check rẻ: một round trip lấy window handle
+     */
+    public boolean isHealthy() {
+        if (watchdog.isDead()) {
+            return false;
+        }
+        try {
+            return driver.getWindowHandle() != null;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * Các cửa sổ thuộc session này (reset chỉ đóng các cửa sổ phụ trong đó)
+     */
+    protected Set<String> windowHandles() {
+        return driver.getWindowHandles();
+    }
+
+    /**
+     * Đưa session về trạng thái sạch để test sau dùng lại:
+     * đóng cửa sổ phụ, xoá cookies, localStorage, sessionStorage, về about:blank
+     *
+     * @return false nếu reset thất bại (session nên bị huỷ)
+     */
+    public boolean reset() {
+        try {
+            Set<String> handles = windowHandles();
+            if (mainWindow == null || !handles.contains(mainWindow)) {
+                mainWindow = handles.iterator().next();
+            }
+            for (String handle : handles) {
+                if (!handle.equals(mainWindow)) {
+                    driver.switchTo().window(handle).close();
+                }
+            }
+            driver.switchTo().window(mainWindow);
+
+            ((JavascriptExecutor) driver).executeScript(
+                    "try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}");
+
+            if (rawDriver instanceof ChromiumDriver) {
+                // Xoá cookies của mọi domain, không chỉ domain hiện tại
+                ((ChromiumDriver) rawDriver).executeCdpCommand("Network.clearBrowserCookies", Map.of());
+            } else {
+                driver.manage().deleteAllCookies();
+            }
+
+            driver.get("about:blank");
+            synchronized (this) {
+                if (networkMonitor != null) {
+                    networkMonitor.clear();
+                }
+            }
+            return true;
+        } catch (Exception e) {
+            System.err.println("Không reset được session " + browser + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Đóng browser, bỏ qua lỗi nếu session đã chết
+     */
+    public void quit() {
+        ProcessTracker.finish(this);
+        synchronized (this) {
+            if (networkMonitor != null) {
+                networkMonitor.close();
+            }
+        }
+        try {
+            // Session đã chết thì driver được giám sát sẽ từ chối mọi command, kể cả quit
+            (watchdog.isDead() ? rawDriver : driver).quit();
+        } catch (Exception e) {
+            System.err.println("Lỗi khi đóng browser " + browser + ": " + e.getMessage());
+        } finally {
+            watchdog.close();
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.happyorder.base;
+
+import com.happyorder.utils.ProcessUtils;
+import org.openqa.selenium.NoSuchSessionException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.remote.UnreachableBrowserException;
+import org.openqa.selenium.support.decorators.Decorated;
+import org.openqa.selenium.support.decorators.WebDriverDecorator;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.ConnectException;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Giám sát session: phát hiện browser đã chết (crash, chromedriver không phản hồi,
+ * NoSuchSessionException) và command bị treo quá -Ddriver.commandDeadline giây
+ *
+ * Khi session chết, process tree của browser bị kill, mọi command sau đó của test fail ngay
+ * (không phải chờ hết implicit wait / page load timeout), và CrashRetryAnalyzer chạy lại
+ * test với session mới.
+ */
+public class DriverWatchdog extends WebDriverDecorator<WebDriver> {
+
+    public static final long COMMAND_DEADLINE_SECONDS = Long.getLong("driver.commandDeadline", 45);
+
+    /** Vẫn chạy được sau khi test hết ngân sách: chụp screenshot, page source lỗi, đóng session */
+    private static final Set<String> EXEMPT_FROM_BUDGET = Set.of("getScreenshotAs", "getPageSource", "quit", "close",
+            "manage", "timeouts", "implicitlyWait", "getImplicitWaitTimeout");
+
+    private static final Set<DriverWatchdog> ACTIVE = ConcurrentHashMap.newKeySet();
+    private static volatile ScheduledExecutorService scanner;
+
+    private final DriverSession session;
+    private final AtomicInteger depth = new AtomicInteger();
+    private volatile long commandStartedAt;
+    private volatile String commandName;
+    private volatile String deathReason;
+
+    public DriverWatchdog(DriverSession session) {
+        this.session = session;
+    }
+
+    /**
+     * Bọc driver và bắt đầu giám sát
+     */
+    public WebDriver watch(WebDriver driver) {
+        WebDriver decorated = decorate(driver);
+        ACTIVE.add(this);
+        startScanner();
+        return decorated;
+    }
+
+    public boolean isDead() {
+        return deathReason != null;
+    }
+
+    public String getDeathReason() {
+        return deathReason;
+    }
+
+    /**
+     * Ngừng giám sát (session đã quit)
+     */
+    public void close() {
+        ACTIVE.remove(this);
+    }
+
+    // ==================== DECORATOR ====================
+
+    @Override
+    public Object call(Decorated<?> target, Method method, Object[] args) throws Throwable {
+        if (isDead()) {
+            throw new NoSuchSessionException("Browser session is dead: " + deathReason);
+        }
+        if (depth.get() == 0 && !EXEMPT_FROM_BUDGET.contains(method.getName())) {
+            // Test đã hết ngân sách (TestDeadline): không gửi thêm command nào, kể cả findElement với implicit wait
+            TestDeadline.checkCurrent(method.getName());
+        }
+        if (depth.getAndIncrement() == 0) {
+            commandName = method.getName();
+            commandStartedAt = System.nanoTime();
+        }
+        try {
+            return super.call(target, method, args);
+        } finally {
+            if (depth.decrementAndGet() == 0) {
+                commandStartedAt = 0;
+            }
+        }
+    }
+
+    @Override
+    public Object onError(Decorated<?> target, Method method, Object[] args, InvocationTargetException e) throws Throwable {
+        Throwable cause = e.getTargetException();
+        if (!isDead() && isSessionDeath(cause)) {
+            markDead(cause.getClass().getSimpleName() + " during " + method.getName(), true);
+        }
+        if (isDead() && !(cause instanceof NoSuchSessionException)) {
+            throw new NoSuchSessionException("Browser session is dead: " + deathReason, cause);
+        }
+        return super.onError(target, method, args, e);
+    }
+
+    // ==================== DETECTION ====================
+
+    /**
+     * Lỗi cho thấy session đã chết, không phải lỗi thường của test
+     */
+    public static boolean isSessionDeath(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof NoSuchSessionException || t instanceof UnreachableBrowserException
+                    || t instanceof ConnectException) {
+                return true;
+            }
+            if (t instanceof WebDriverException) {
+                String message = String.valueOf(t.getMessage()).toLowerCase();
+                if (message.contains("chrome not reachable")
+                        || message.contains("session deleted because of page crash")
+                        || message.contains("tab crashed")
+                        || message.contains("not connected to devtools")
+                        || message.contains("browser session is dead")) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void markDead(String reason, boolean killProcesses) {
+        if (isDead()) {
+            return;
+        }
+        deathReason = reason;
+        System.err.println("Watchdog: session " + session.getBrowser() + " is dead (" + reason + ")");
+        if (killProcesses) {
+            killProcessTree();
+        }
+    }
+
+    /**
+     * Kill chromedriver và toàn bộ process Chrome của session
+     */
+    void killProcessTree() {
+        List<ProcessHandle> processes = session.getProcessTree();
+        if (processes.isEmpty()) {
+            if (session.getProcessMarker() == null) {
+                // Contexts mode: Chrome dùng chung với test khác, chỉ đánh dấu dead
+                System.err.println("Watchdog: session " + session.getBrowser() + " has no own browser process, not killing");
+            }
+            return;
+        }
+        ProcessUtils.destroyAll(processes);
+        System.err.println("Watchdog: killed " + processes.size() + " process(es) of session " + session.getBrowser());
+    }
+
+    private void checkDeadline() {
+        long startedAt = commandStartedAt;
+        if (startedAt == 0 || isDead()) {
+            return;
+        }
+        long elapsed = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - startedAt);
+        if (elapsed >= COMMAND_DEADLINE_SECONDS) {
+            // Kill process để command đang treo trả về lỗi ngay
+            markDead("command " + commandName + " hung for " + elapsed + " s", true);
+        }
+    }
+
+    private static void startScanner() {
+        if (scanner != null) {
+            return;
+        }
+        synchronized (DriverWatchdog.class) {
+            if (scanner == null) {
+                scanner = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "driver-watchdog");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+                scanner.scheduleWithFixedDelay(() -> {
+                    for (DriverWatchdog watchdog : ACTIVE) {
+                        try {
+                            watchdog.checkDeadline();
+                        } catch (Exception e) {
+                            System.err.println("Watchdog error: " + e.getMessage());
+                        }
+                    }
+                }, 1, 1, TimeUnit.SECONDS);
+            }
+        }
+    }
+}
@@ -0,0 +1,209 @@
+package com.happyorder.base;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.support.pagefactory.Annotations;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+import org.openqa.selenium.support.pagefactory.ElementLocatorFactory;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Cache WebElement đã tìm của một page object, dùng lại cho tới khi session điều hướng
+ * (NavigationEpoch đổi)
+ *
+ * Element trả về là proxy: nếu handle bị stale (DOM render lại, click làm đổi trang) thì
+ * element được tìm lại bằng đúng cách đã tìm lần đầu và command được chạy lại một lần.
+ * Driver không thuộc session nào của DriverManager thì cache không hoạt động (luôn tìm lại).
+ * Tắt bằng -Delement.cache=false.
+ */
+public class ElementCache {
+
+    public static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("element.cache", "true"));
+
+    private static final AtomicLong HITS = new AtomicLong();
+    private static final AtomicLong MISSES = new AtomicLong();
+    private static final AtomicLong STALE = new AtomicLong();
+
+    private final WebDriver driver;
+    private final NavigationEpoch epoch;
+    private final Map<By, Entry> entries = new ConcurrentHashMap<>();
+
+    public ElementCache(WebDriver driver) {
+        this.driver = driver;
+        DriverSession session = DriverManager.getSession();
+        this.epoch = ENABLED && session != null && session.getDriver() == driver ? session.getNavigationEpoch() : null;
+    }
+
+    /**
+     * Element đã cache của {@code locator}, hoặc tìm bằng {@code resolver} (ví dụ chờ visible) rồi cache lại
+     */
+    public WebElement get(By locator, Supplier<WebElement> resolver) {
+        return get(locator, resolver, element -> true);
+    }
+
+    /**
+     * Như get, nhưng handle đã cache chỉ được dùng lại khi nó vẫn hiển thị (một lần isDisplayed);
+     * SPA có thể ẩn hoặc render lại node mà không điều hướng, khi đó element được chờ lại bằng {@code resolver}
+     */
+    public WebElement getVisible(By locator, Supplier<WebElement> resolver) {
+        return get(locator, resolver, WebElement::isDisplayed);
+    }
+
+    private WebElement get(By locator, Supplier<WebElement> resolver, Predicate<WebElement> usable) {
+        if (epoch == null) {
+            return resolver.get();
+        }
+        long current = epoch.current();
+        Entry entry = entries.get(locator);
+        if (entry != null && entry.epoch == current && entry.isUsable(usable)) {
+            HITS.incrementAndGet();
+            return entry.proxy;
+        }
+        MISSES.incrementAndGet();
+        return put(locator, resolver.get(), resolver, current).proxy;
+    }
+
+    /**
+     * Element của {@code locator} tìm bằng findElement (implicit wait như bình thường)
+     */
+    public WebElement find(By locator) {
+        return get(locator, () -> driver.findElement(locator));
+    }
+
+    /**
+     * Cache element vừa tìm được bằng cách khác cho lần dùng sau
+     */
+    public WebElement put(By locator, WebElement element, Supplier<WebElement> resolver) {
+        if (epoch == null) {
+            return element;
+        }
+        return put(locator, element, resolver, epoch.current()).proxy;
+    }
+
+    public void invalidate(By locator) {
+        entries.remove(locator);
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Locator factory cho PageFactory: field @FindBy dùng handle đã cache thay vì findElement mỗi lần truy cập
+     */
+    public ElementLocatorFactory locatorFactory() {
+        return field -> {
+            By locator = new Annotations(field).buildBy();
+            return new ElementLocator() {
+                @Override
+                public WebElement findElement() {
+                    return find(locator);
+                }
+
+                @Override
+                public List<WebElement> findElements() {
+                    return driver.findElements(locator);
+                }
+
+                @Override
+                public String toString() {
+                    return "Cached element locator '" + locator + "'";
+                }
+            };
+        };
+    }
+
+    /**
+     * Số lần dùng lại handle / phải tìm mới / tìm lại vì stale của mọi cache
+     */
+    public static String metrics() {
+        long hits = HITS.get();
+        long lookups = hits + MISSES.get();
+        return String.format("hits=%d, misses=%d, staleRetries=%d, hitRate=%d%%",
+                hits, MISSES.get(), STALE.get(), lookups == 0 ? 0 : hits * 100 / lookups);
+    }
+
+    private Entry put(By locator, WebElement element, Supplier<WebElement> resolver, long current) {
+        Entry entry = new Entry(locator, element, resolver, current);
+        entries.put(locator, entry);
+        return entry;
+    }
+
+    /**
+     * Handle đã cache cùng cách tìm lại nó
+     */
+    private class Entry implements InvocationHandler {
+        private final By locator;
+        private final Supplier<WebElement> resolver;
+        private final WebElement proxy;
+        private volatile WebElement element;
+        private volatile long epoch;
+
+        Entry(By locator, WebElement element, Supplier<WebElement> resolver, long epoch) {
+            this.locator = locator;
+            this.element = element;
+            this.resolver = resolver;
+            this.epoch = epoch;
+            this.proxy = (WebElement) Proxy.newProxyInstance(ElementCache.class.getClassLoader(),
+                    new Class<?>[]{WebElement.class, WrapsElement.class, WrapsDriver.class}, this);
+        }
+
+        /**
+         * Kiểm tra handle hiện tại (không tìm lại nếu stale)
+         */
+        boolean isUsable(Predicate<WebElement> usable) {
+            try {
+                return usable.test(element);
+            } catch (StaleElementReferenceException e) {
+                return false;
+            }
+        }
+
+        @Override
+        public Object invoke(Object self, Method method, Object[] args) throws Throwable {
+            if ("getWrappedElement".equals(method.getName())) {
+                return element;
+            }
+            if ("getWrappedDriver".equals(method.getName())) {
+                return driver;
+            }
+            if ("equals".equals(method.getName()) && args[0] instanceof WrapsElement) {
+                return element.equals(((WrapsElement) args[0]).getWrappedElement());
+            }
+            if ("toString".equals(method.getName())) {
+                return "Cached element [" + locator + "]";
+            }
+            try {
+                return method.invoke(element, args);
+            } catch (InvocationTargetException e) {
+                if (!(e.getTargetException() instanceof StaleElementReferenceException)) {
+                    throw e.getTargetException();
+                }
+            }
+            // Handle stale: tìm lại một lần rồi chạy lại command
+            STALE.incrementAndGet();
+            element = resolver.get();
+            epoch = ElementCache.this.epoch.current();
+            entries.put(locator, this);
+            try {
+                return method.invoke(element, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.happyorder.base;
+
+import com.happyorder.utils.PropertiesStore;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsDriver;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Một element logic với nhiều locator dự phòng (primary, alternative...)
+ *
+ * Mọi ứng viên được thử trong cùng một lần query JS (và cùng một lần chờ của WaitEngine),
+ * thay vì chờ hết timeout của locator primary rồi mới thử alternative.
+ * Ứng viên khớp được lưu vào locator-cache.properties (thư mục cache) và được thử trước
+ * ở các lần chạy sau.
+ *
+ * <pre>
+ * By username = FallbackLocator.of("HappyOrderLoginPage.username",
+ *         By.cssSelector("input[type='text']"),
+ *         By.xpath("//input[@type='text']"));
+ * </pre>
+ */
+public class FallbackLocator extends By {
+
+    private static final String FIND_SCRIPT =
+            "var candidates = arguments[0], root = arguments[1] || document;"
+                    + WaitEngine.FIND_FUNCTION
+                    + "for (var c = 0; c < candidates.length; c++) {"
+                    + "  var elements = find(candidates[c], root);"
+                    + "  if (elements.length) { return [c, elements]; }"
+                    + "}"
+                    + "return [-1, []];";
+
+    private static volatile PropertiesStore cache;
+
+    private final String name;
+    private final List<By> candidates;
+    private volatile int preferred;
+
+    private FallbackLocator(String name, List<By> candidates) {
+        this.name = name;
+        this.candidates = candidates;
+        this.preferred = cachedIndex();
+    }
+
+    /**
+     * @param name       tên duy nhất của element, dùng làm key trong cache
+     * @param candidates các locator theo thứ tự ưu tiên (phải là locator chuẩn: css, xpath, id...)
+     */
+    public static FallbackLocator of(String name, By... candidates) {
+        if (candidates.length == 0) {
+            throw new IllegalArgumentException("Fallback locator \"" + name + "\" needs at least one candidate");
+        }
+        for (By candidate : candidates) {
+            if (!(candidate instanceof By.Remotable)) {
+                throw new IllegalArgumentException("Fallback locator \"" + name + "\" cannot use " + candidate
+                        + ", only standard locators can be resolved in the browser");
+            }
+        }
+        return new FallbackLocator(name, List.of(candidates));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Các ứng viên theo thứ tự sẽ thử: ứng viên đã khớp lần trước đứng đầu
+     */
+    public List<By> getCandidates() {
+        List<By> ordered = new ArrayList<>(candidates);
+        ordered.add(0, ordered.remove(preferred));
+        return ordered;
+    }
+
+    @Override
+    public List<WebElement> findElements(SearchContext context) {
+        JavascriptExecutor js = executor(context);
+        Object root = context instanceof WebElement ? context : null;
+        List<By> ordered = getCandidates();
+        List<?> result = (List<?>) js.executeScript(FIND_SCRIPT, toScriptCandidates(ordered), root);
+
+        int index = ((Number) result.get(0)).intValue();
+        if (index < 0) {
+            return List.of();
+        }
+        recordMatch(ordered.get(index));
+        List<WebElement> elements = new ArrayList<>();
+        for (Object element : (List<?>) result.get(1)) {
+            elements.add((WebElement) element);
+        }
+        return elements;
+    }
+
+    @Override
+    public String toString() {
+        return "By.fallback(" + name + "): " + getCandidates();
+    }
+
+    // ==================== SCRIPT & CACHE ====================
+
+    /**
+     * Ứng viên ở dạng [using, value] cho script tìm element
+     */
+    static List<List<Object>> toScriptCandidates(List<By> ordered) {
+        List<List<Object>> script = new ArrayList<>();
+        for (By candidate : ordered) {
+            By.Remotable.Parameters parameters = ((By.Remotable) candidate).getRemoteParameters();
+            script.add(List.of(parameters.using(), parameters.value()));
+        }
+        return script;
+    }
+
+    /**
+     * Ghi nhận ứng viên đã khớp, lần sau thử nó trước
+     */
+    void recordMatch(By winner) {
+        int index = candidates.indexOf(winner);
+        if (index == preferred) {
+            return;
+        }
+        preferred = index;
+        System.out.println("Locator " + name + " matched " + winner + ", it will be tried first");
+        cache().put(name, winner.toString());
+    }
+
+    private int cachedIndex() {
+        String winner = cache().get(name);
+        for (int i = 0; i < candidates.size(); i++) {
+            if (Objects.equals(candidates.get(i).toString(), winner)) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    private static JavascriptExecutor executor(SearchContext context) {
+        if (context instanceof JavascriptExecutor) {
+            return (JavascriptExecutor) context;
+        }
+        if (context instanceof WrapsDriver) {
+            WebDriver driver = ((WrapsDriver) context).getWrappedDriver();
+            if (driver instanceof JavascriptExecutor) {
+                return (JavascriptExecutor) driver;
+            }
+        }
+        throw new IllegalArgumentException("Cannot run fallback locator in " + context);
+    }
+
+    private static PropertiesStore cache() {
+        if (cache == null) {
+            synchronized (FallbackLocator.class) {
+                if (cache == null) {
+                    cache = PropertiesStore.inCacheDir("locator-cache.properties");
+                }
+            }
+        }
+        return cache;
+    }
+}
@@ -0,0 +1,168 @@
+package com.happyorder.base;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.Keys;
+import org.openqa.selenium.Platform;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.interactions.Actions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Nhập form bằng sự kiện bàn phím/chuột thật nhưng gửi cả chuỗi thao tác trong một
+ * W3C actions command (Actions.perform)
+ *
+ * Chỉ chờ field đầu tiên (form đã render), rồi tìm mọi field và nút submit trong một lần executeScript.
+ * Chuỗi thao tác: click field đầu, chuyển sang field sau bằng Tab (click nếu field sau không phải
+ * điểm dừng Tab kế tiếp), chọn hết (Ctrl/Cmd+A), xoá, gõ value; cuối cùng click nút submit.
+ * Thay cho clear + findElement + sendKeys riêng cho từng field.
+ */
+public class KeyboardInput {
+
+    /**
+     * Element đầu tiên khớp của từng locator (arguments[0]: danh sách ứng viên [using, value] của mỗi locator)
+     * và field nào là điểm dừng Tab ngay sau field trước nó
+     */
+    private static final String RESOLVE_SCRIPT =
+            "var locators = arguments[0];"
+                    + WaitEngine.FIND_FUNCTION
+                    + WaitEngine.SHOWN_FUNCTION
+                    + "function first(candidates) {"
+                    + "  for (var c = 0; c < candidates.length; c++) {"
+                    + "    var found = find(candidates[c], document);"
+                    + "    if (found.length) { return found[0]; }"
+                    + "  }"
+                    + "  return null;"
+                    + "}"
+                    + "var elements = locators.map(function (candidates) { return candidates ? first(candidates) : null; });"
+                    + "var stops = all(document.querySelectorAll("
+                    + "    'input, select, textarea, button, a[href], [tabindex], [contenteditable=\"true\"]'))"
+                    + "  .filter(function (e) { return e.tabIndex >= 0 && !e.disabled && e.type !== 'hidden' && shown(e); });"
+                    + "var documentOrder = !stops.some(function (e) { return e.tabIndex > 0; });"
+                    + "var tabbed = elements.map(function (e, i) {"
+                    + "  if (!documentOrder || i === 0 || !e || !elements[i - 1]) { return false; }"
+                    + "  var previous = stops.indexOf(elements[i - 1]);"
+                    + "  return previous >= 0 && stops.indexOf(e) === previous + 1;"
+                    + "});"
+                    + "return [elements, tabbed];";
+
+    private final WebDriver driver;
+    private final ElementCache cache;
+    private final Function<By, WebElement> resolver;
+
+    /**
+     * @param cache    cache element của page (handle stale được bỏ khỏi cache trước khi làm lại)
+     * @param resolver cách page tìm element (ví dụ waitForElementVisible)
+     */
+    public KeyboardInput(WebDriver driver, ElementCache cache, Function<By, WebElement> resolver) {
+        this.driver = driver;
+        this.cache = cache;
+        this.resolver = resolver;
+    }
+
+    /**
+     * Gõ các field theo thứ tự (value null thì bỏ qua field) rồi click {@code submit} (null = không click)
+     */
+    public void typeAndSubmit(Map<By, String> fields, By submit) {
+        try {
+            build(fields, submit).perform();
+        } catch (StaleElementReferenceException e) {
+            // Form render lại giữa lúc tìm element và perform: tìm lại và làm lại cả chuỗi
+            // (mỗi field được chọn hết rồi gõ lại nên làm lại không bị gõ trùng)
+            System.out.println("Form was re-rendered during input, repeating the action chain");
+            fields.keySet().forEach(cache::invalidate);
+            if (submit != null) {
+                cache.invalidate(submit);
+            }
+            build(fields, submit).perform();
+        }
+    }
+
+    private Actions build(Map<By, String> fields, By submit) {
+        List<By> locators = new ArrayList<>();
+        List<String> values = new ArrayList<>();
+        fields.forEach((locator, value) -> {
+            if (value != null) {
+                locators.add(locator);
+                values.add(value);
+            }
+        });
+        if (submit != null) {
+            locators.add(submit);
+        }
+        if (locators.isEmpty()) {
+            return new Actions(driver);
+        }
+
+        List<Object> tabbed = new ArrayList<>();
+        List<WebElement> elements = resolve(locators, tabbed);
+        Keys selectAll = selectAllModifier();
+        Actions actions = new Actions(driver);
+        for (int i = 0; i < values.size(); i++) {
+            if (Boolean.TRUE.equals(tabbed.get(i))) {
+                actions.sendKeys(Keys.TAB);
+            } else {
+                actions.click(elements.get(i));
+            }
+            actions.keyDown(selectAll).sendKeys("a").keyUp(selectAll)
+                    .sendKeys(Keys.BACK_SPACE);
+            if (!values.get(i).isEmpty()) {
+                actions.sendKeys(values.get(i));
+            }
+        }
+        if (submit != null) {
+            actions.click(elements.get(elements.size() - 1));
+        }
+        return actions;
+    }
+
+    /**
+     * Chờ locator đầu tiên bằng resolver, tìm tất cả trong một executeScript; locator không tìm được
+     * trong JS (ByChained...) hoặc chưa có trên trang thì tìm lại bằng resolver
+     */
+    private List<WebElement> resolve(List<By> locators, List<Object> tabbed) {
+        resolver.apply(locators.get(0));
+
+        List<List<List<Object>>> candidates = new ArrayList<>();
+        for (By locator : locators) {
+            if (locator instanceof FallbackLocator) {
+                candidates.add(FallbackLocator.toScriptCandidates(((FallbackLocator) locator).getCandidates()));
+            } else if (locator instanceof By.Remotable) {
+                candidates.add(FallbackLocator.toScriptCandidates(List.of(locator)));
+            } else {
+                candidates.add(null);
+            }
+        }
+        List<?> result = (List<?>) ((JavascriptExecutor) driver).executeScript(RESOLVE_SCRIPT, candidates);
+        List<?> found = (List<?>) result.get(0);
+        tabbed.addAll((List<?>) result.get(1));
+
+        List<WebElement> elements = new ArrayList<>();
+        for (int i = 0; i < locators.size(); i++) {
+            By locator = locators.get(i);
+            WebElement element = (WebElement) found.get(i);
+            if (element == null) {
+                System.out.println("Keyboard input: " + locator + " not ready, waiting for it");
+                element = resolver.apply(locator);
+            } else {
+                element = cache.put(locator, element, () -> resolver.apply(locator));
+            }
+            elements.add(element);
+        }
+        return elements;
+    }
+
+    private Keys selectAllModifier() {
+        Capabilities capabilities = driver instanceof HasCapabilities ? ((HasCapabilities) driver).getCapabilities() : null;
+        Platform platform = capabilities == null ? null : capabilities.getPlatformName();
+        return platform != null && platform.is(Platform.MAC) ? Keys.COMMAND : Keys.CONTROL;
+    }
+}
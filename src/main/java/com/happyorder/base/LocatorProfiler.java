@@ -0,0 +1,271 @@
+package com.happyorder.base;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Đo chi phí của từng locator trên DOM thật của trang đang dùng nó: thời gian browser evaluate
+ * locator (µs, trung bình -Dlocator.profile.reps lần) và số element khớp
+ *
+ * Locator được ghi lại khi WaitEngine chờ nó (BasePages, WebElementUtils) và khi driver.findElement(s)
+ * được gọi (field @FindBy, findElement trực tiếp) qua listener trên driver của session. Mỗi cặp
+ * trang + locator được đo tối đa -Dlocator.profile.samples lần. Khi locator khớp đúng một element,
+ * profiler tìm một CSS selector rẻ hơn (id, name, class, hoặc neo vào ancestor có id) cũng chỉ khớp
+ * element đó và đo luôn selector gợi ý. Báo cáo xếp theo chi phí: test-output/locator-profile.txt.
+ * Bật bằng -Dlocator.profile=true (mỗi lần đo là một executeScript thêm).
+ */
+public class LocatorProfiler implements WebDriverListener {
+
+    public static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("locator.profile", "false"));
+    public static final int SAMPLES = Integer.getInteger("locator.profile.samples", 3);
+    public static final int REPS = Integer.getInteger("locator.profile.reps", 20);
+
+    /**
+     * Evaluate locator arguments[0] ([using, value]) arguments[1] lần, trả về chi phí (µs), số element khớp
+     * và CSS selector gợi ý (khớp đúng element đó) cùng chi phí của nó
+     */
+    private static final String PROFILE_SCRIPT =
+            "var candidate = arguments[0], reps = arguments[1];"
+                    + WaitEngine.FIND_FUNCTION
+                    + "function cost(fn) {"
+                    + "  var start = performance.now();"
+                    + "  for (var i = 0; i < reps; i++) { fn(); }"
+                    + "  return (performance.now() - start) * 1000 / reps;"
+                    + "}"
+                    + "function esc(v) { return window.CSS && CSS.escape ? CSS.escape(v) : v; }"
+                    + "function suggest(el) {"
+                    + "  var tag = el.tagName.toLowerCase(), options = [];"
+                    + "  var classes = all(el.classList).map(function (c) { return '.' + esc(c); }).join('');"
+                    + "  if (el.id) { options.push('#' + esc(el.id)); }"
+                    + "  var name = el.getAttribute('name');"
+                    + "  if (name) { options.push(tag + '[name=\"' + name.replace(/\"/g, '\\\\\"') + '\"]'); }"
+                    + "  if (classes) { options.push(tag + classes); }"
+                    + "  for (var a = el.parentElement; a; a = a.parentElement) {"
+                    + "    if (a.id) { options.push('#' + esc(a.id) + ' ' + tag + classes); break; }"
+                    + "  }"
+                    + "  for (var o = 0; o < options.length; o++) {"
+                    + "    try {"
+                    + "      var found = document.querySelectorAll(options[o]);"
+                    + "      if (found.length === 1 && found[0] === el) { return options[o]; }"
+                    + "    } catch (e) {}"
+                    + "  }"
+                    + "  return null;"
+                    + "}"
+                    + "var matches;"
+                    + "try { matches = find(candidate, document); } catch (e) { return { error: String(e.message || e) }; }"
+                    + "var result = { matches: matches.length, cost: cost(function () { find(candidate, document); }) };"
+                    + "if (matches.length === 1) {"
+                    + "  var css = suggest(matches[0]);"
+                    + "  if (css && !(candidate[0] === 'css selector' && candidate[1] === css)) {"
+                    + "    result.suggestion = css;"
+                    + "    result.suggestionCost = cost(function () { document.querySelectorAll(css); });"
+                    + "  }"
+                    + "}"
+                    + "return result;";
+
+    /** //tag[@attr='value'] chuyển thẳng được sang CSS */
+    private static final Pattern SIMPLE_XPATH =
+            Pattern.compile("^//([a-zA-Z][\\w-]*|\\*)\\[@([\\w-]+)\\s*=\\s*'([^']*)'\\]$");
+
+    private static final Map<String, Profile> PROFILES = new ConcurrentHashMap<>();
+
+    @Override
+    public void beforeFindElement(WebDriver driver, By locator) {
+        record(driver, locator);
+    }
+
+    @Override
+    public void beforeFindElements(WebDriver driver, By locator) {
+        record(driver, locator);
+    }
+
+    /**
+     * Đo {@code locator} trên trang hiện tại (nếu profiler bật và cặp trang + locator chưa đủ mẫu)
+     */
+    public static void record(WebDriver driver, By locator) {
+        if (!ENABLED) {
+            return;
+        }
+        List<By> candidates;
+        if (locator instanceof FallbackLocator) {
+            candidates = ((FallbackLocator) locator).getCandidates();
+        } else if (locator instanceof By.Remotable) {
+            candidates = List.of(locator);
+        } else {
+            // ByChained, ByAll...: không evaluate được trong JS
+            return;
+        }
+        try {
+            String page = AdaptiveTimeouts.key(driver.getCurrentUrl(), "").trim();
+            for (By candidate : candidates) {
+                Profile profile = PROFILES.computeIfAbsent(page + " " + candidate, key -> new Profile(page, candidate));
+                if (profile.needsSample()) {
+                    profile.add(((JavascriptExecutor) driver).executeScript(PROFILE_SCRIPT,
+                            FallbackLocator.toScriptCandidates(List.of(candidate)).get(0), REPS));
+                }
+            }
+        } catch (RuntimeException e) {
+            // Không được làm hỏng lệnh tìm element thật
+            System.out.println("Locator profile skipped for " + locator + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Các locator tốn nhất (chi phí trung vị, rồi số element khớp), ghi ra test-output/locator-profile.txt
+     */
+    public static String report(int limit) {
+        List<Profile> profiles = new ArrayList<>(PROFILES.values());
+        profiles.removeIf(profile -> profile.size() == 0 && profile.error == null);
+        profiles.sort((a, b) -> a.median() != b.median() ? Double.compare(b.median(), a.median())
+                : Integer.compare(b.maxMatches, a.maxMatches));
+
+        StringBuilder report = new StringBuilder(String.format("%-10s %-8s %-8s %-10s %s%n",
+                "cost(µs)", "matches", "samples", "css(µs)", "page / locator"));
+        for (Profile profile : profiles.subList(0, Math.min(limit, profiles.size()))) {
+            report.append(String.format("%-10.1f %-8d %-8d %-10s %s %s%n", profile.median(), profile.maxMatches,
+                    profile.size(), profile.suggestionCost < 0 ? "-" : String.format("%.1f", profile.suggestionCost),
+                    profile.page, profile.locator));
+            for (String hint : hints(profile.locator)) {
+                report.append("    ! ").append(hint).append(System.lineSeparator());
+            }
+            String suggestion = profile.suggestion != null ? profile.suggestion : staticSuggestion(profile.locator);
+            if (suggestion != null) {
+                report.append("    → By.cssSelector(\"").append(suggestion.replace("\"", "\\\""))
+                        .append("\")").append(System.lineSeparator());
+            }
+            if (profile.error != null) {
+                report.append("    error: ").append(profile.error).append(System.lineSeparator());
+            }
+        }
+
+        Path file = Paths.get(System.getProperty("user.dir"), "test-output", "locator-profile.txt");
+        try {
+            Files.createDirectories(file.getParent());
+            Files.write(file, report.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            System.out.println("Could not write " + file + ": " + e.getMessage());
+        }
+        return report.toString();
+    }
+
+    /**
+     * Lý do locator tốn kém, đọc từ chính biểu thức (không cần DOM)
+     */
+    static List<String> hints(By locator) {
+        List<String> hints = new ArrayList<>();
+        if (!(locator instanceof By.Remotable)) {
+            return hints;
+        }
+        By.Remotable.Parameters parameters = ((By.Remotable) locator).getRemoteParameters();
+        String value = String.valueOf(parameters.value());
+        if ("xpath".equals(parameters.using())) {
+            if (value.startsWith("//")) {
+                hints.add("descendant axis from the document root: every element of the page is visited");
+            }
+            if (value.contains("//*")) {
+                hints.add("//* tests every element regardless of tag");
+            }
+            if (value.contains("text()")) {
+                hints.add("text() compares the text nodes of each visited element");
+            }
+            if (value.contains(" or ")) {
+                hints.add("'or' predicates are all evaluated for every non-matching node");
+            }
+            if (value.contains("contains(@class")) {
+                hints.add("contains(@class, ...) is a substring match, a CSS class selector is exact and indexed");
+            }
+        } else if ("css selector".equals(parameters.using()) && value.matches("^\\s*(\\*|\\[).*")) {
+            hints.add("selector starts with * or an attribute test: every element is tested");
+        }
+        return hints;
+    }
+
+    /**
+     * CSS tương đương của //tag[@attr='value'] khi không lấy được gợi ý từ DOM
+     */
+    static String staticSuggestion(By locator) {
+        if (!(locator instanceof By.Remotable)
+                || !"xpath".equals(((By.Remotable) locator).getRemoteParameters().using())) {
+            return null;
+        }
+        Matcher matcher = SIMPLE_XPATH.matcher(String.valueOf(((By.Remotable) locator).getRemoteParameters().value()));
+        if (!matcher.matches()) {
+            return null;
+        }
+        String tag = "*".equals(matcher.group(1)) ? "" : matcher.group(1);
+        String attribute = matcher.group(2);
+        String value = matcher.group(3);
+        if ("id".equals(attribute) && value.matches("[A-Za-z][\\w-]*")) {
+            return tag + "#" + value;
+        }
+        if ("class".equals(attribute) && value.matches("[\\w-]+(\\s+[\\w-]+)*")) {
+            return tag + "." + value.trim().replaceAll("\\s+", ".");
+        }
+        return tag + "[" + attribute + "='" + value + "']";
+    }
+
+    /**
+     * Các lần đo của một locator trên một trang
+     */
+    private static class Profile {
+        private final String page;
+        private final By locator;
+        private final List<Double> costs = new ArrayList<>();
+        private int attempts;
+        private int maxMatches;
+        private String suggestion;
+        private double suggestionCost = -1;
+        private String error;
+
+        Profile(String page, By locator) {
+            this.page = page;
+            this.locator = locator;
+        }
+
+        synchronized boolean needsSample() {
+            return attempts < SAMPLES;
+        }
+
+        synchronized void add(Object result) {
+            attempts++;
+            Map<?, ?> values = (Map<?, ?>) result;
+            if (values.get("error") != null) {
+                error = String.valueOf(values.get("error"));
+                return;
+            }
+            costs.add(((Number) values.get("cost")).doubleValue());
+            maxMatches = Math.max(maxMatches, ((Number) values.get("matches")).intValue());
+            if (values.get("suggestion") != null) {
+                suggestion = String.valueOf(values.get("suggestion"));
+                suggestionCost = ((Number) values.get("suggestionCost")).doubleValue();
+            }
+        }
+
+        synchronized int size() {
+            return costs.size();
+        }
+
+        synchronized double median() {
+            if (costs.isEmpty()) {
+                return 0;
+            }
+            List<Double> sorted = new ArrayList<>(costs);
+            sorted.sort(null);
+            return sorted.get(sorted.size() / 2);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.happyorder.base;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bộ đếm điều hướng của một session: tăng mỗi khi driver mở URL, back/forward/refresh,
+ * submit form hoặc đổi window/frame, tức là khi mọi WebElement đã tìm trước đó hết giá trị
+ *
+ * Được gắn vào driver của session qua EventFiringDecorator (xem DriverSession), ElementCache
+ * dùng nó để biết handle đã cache còn dùng được không. Điều hướng do click gây ra (SPA, submit
+ * bằng nút) không đi qua đây: handle cũ khi đó bị stale và được ElementCache tìm lại.
+ * Nó cũng nhớ URL cuối cùng driver mở hoặc đọc được (get, navigate().to, getCurrentUrl) để
+ * AdaptiveTimeouts lấy path của trang mà không cần thêm round trip.
+ */
+public class NavigationEpoch implements WebDriverListener {
+
+    private final AtomicLong epoch = new AtomicLong();
+    private volatile String lastUrl = "";
+
+    public long current() {
+        return epoch.get();
+    }
+
+    public void advance() {
+        epoch.incrementAndGet();
+    }
+
+    /**
+     * URL cuối cùng đã biết của session ("" nếu chưa có), có thể cũ hơn URL thật sau back/forward
+     * hoặc redirect cho tới lần getCurrentUrl tiếp theo
+     */
+    public String lastUrl() {
+        return lastUrl;
+    }
+
+    @Override
+    public void afterGet(WebDriver driver, String url) {
+        lastUrl = url;
+        advance();
+    }
+
+    @Override
+    public void afterGetCurrentUrl(WebDriver driver, String result) {
+        if (result != null) {
+            lastUrl = result;
+        }
+    }
+
+    @Override
+    public void afterTo(WebDriver.Navigation navigation, String url) {
+        lastUrl = url;
+    }
+
+    @Override
+    public void afterAnyNavigationCall(WebDriver.Navigation navigation, Method method, Object[] args, Object result) {
+        advance();
+    }
+
+    @Override
+    public void afterSubmit(WebElement element) {
+        advance();
+    }
+
+    @Override
+    public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+        if (target instanceof WebDriver.TargetLocator) {
+            advance();
+        }
+    }
+}
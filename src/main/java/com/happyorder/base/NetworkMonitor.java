@@ -0,0 +1,147 @@
+package com.happyorder.base;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Theo dõi request XHR/fetch đang chạy của một session qua Chrome DevTools (event Network.*)
+ * để chờ network idle thay vì đoán thời gian API login bằng sleep
+ *
+ * Dùng event CDP dạng raw (không qua selenium-devtools-vXXX) nên không phụ thuộc version Chrome.
+ * Request có URL chứa một mục trong -Dnetwork.idle.ignore (phân cách bằng dấu phẩy) được bỏ qua,
+ * dùng cho các endpoint polling/long-poll không bao giờ kết thúc.
+ */
+public class NetworkMonitor {
+
+    /** Không có request nào chạy trong khoảng này (ms) thì coi là idle */
+    public static final long QUIET_MILLIS = Long.getLong("network.idle.quiet", 500);
+    public static final List<String> IGNORE = Arrays.stream(
+                    System.getProperty("network.idle.ignore", "/socket.io/,/sockjs,/heartbeat,/ping").split(","))
+            .map(String::trim)
+            .filter(entry -> !entry.isEmpty())
+            .collect(Collectors.toList());
+
+    private final DevTools devTools;
+    private final Map<String, String> inFlight = new ConcurrentHashMap<>();
+    private volatile long lastActivity = System.nanoTime();
+
+    private NetworkMonitor(DevTools devTools) {
+        this.devTools = devTools;
+    }
+
+    /**
+     * Bật theo dõi network cho driver, null nếu browser không hỗ trợ DevTools (Firefox...)
+     */
+    @SuppressWarnings("unchecked")
+    static NetworkMonitor attach(WebDriver rawDriver) {
+        if (!(rawDriver instanceof HasDevTools)) {
+            return null;
+        }
+        try {
+            DevTools devTools = ((HasDevTools) rawDriver).getDevTools();
+            devTools.createSessionIfThereIsNotOne();
+            NetworkMonitor monitor = new NetworkMonitor(devTools);
+
+            devTools.addListener(event("Network.requestWillBeSent"), params -> {
+                String type = String.valueOf(params.get("type"));
+                Map<String, Object> request = (Map<String, Object>) params.get("request");
+                String url = request == null ? "" : String.valueOf(request.get("url"));
+                if (("XHR".equals(type) || "Fetch".equals(type)) && !monitor.isIgnored(url)) {
+                    monitor.inFlight.put(String.valueOf(params.get("requestId")), url);
+                    monitor.lastActivity = System.nanoTime();
+                }
+            });
+            devTools.addListener(event("Network.loadingFinished"), monitor::finished);
+            devTools.addListener(event("Network.loadingFailed"), monitor::finished);
+            devTools.send(new Command<>("Network.enable", Map.of()));
+            return monitor;
+        } catch (Exception e) {
+            System.out.println("Network monitoring is not available: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Chờ tới khi không còn request XHR/fetch nào trong QUIET_MILLIS
+     *
+     * @return false nếu hết timeout mà vẫn còn request (URL được log để bổ sung ignore list)
+     */
+    public boolean waitForIdle(Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        long quietNanos = Duration.ofMillis(QUIET_MILLIS).toNanos();
+        while (true) {
+            long now = System.nanoTime();
+            if (inFlight.isEmpty() && now - lastActivity >= quietNanos) {
+                return true;
+            }
+            if (now >= deadline) {
+                System.out.println("Network not idle after " + timeout.toMillis() + " ms, in flight: " + inFlight.values());
+                return false;
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Đánh dấu có hoạt động ngay lúc này: request bắn ra ngay sau thao tác (click) vẫn được đợi
+     */
+    public void markActivity() {
+        lastActivity = System.nanoTime();
+    }
+
+    public List<String> getInFlightUrls() {
+        return new ArrayList<>(inFlight.values());
+    }
+
+    /**
+     * Quên các request đang theo dõi (session được reset cho test sau)
+     */
+    void clear() {
+        inFlight.clear();
+    }
+
+    void close() {
+        try {
+            devTools.clearListeners();
+            devTools.disconnectSession();
+        } catch (Exception e) {
+            // Session đã đóng cùng browser
+        }
+    }
+
+    private void finished(Map<String, Object> params) {
+        if (inFlight.remove(String.valueOf(params.get("requestId"))) != null) {
+            lastActivity = System.nanoTime();
+        }
+    }
+
+    private boolean isIgnored(String url) {
+        for (String entry : IGNORE) {
+            if (url.contains(entry)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Event<Map<String, Object>> event(String method) {
+        return new Event<>(method, input -> input.read(Json.MAP_TYPE));
+    }
+}
@@ -0,0 +1,15 @@
+package com.happyorder.base;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Đánh dấu test (hoặc cả class) không cần browser
+ * BaseTest sẽ không mở session, và getDriver() sẽ báo lỗi nếu test lỡ gọi tới
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface NoBrowser {
+}
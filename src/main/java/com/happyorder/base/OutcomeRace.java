@@ -0,0 +1,178 @@
+package com.happyorder.base;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.NotFoundException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Chờ đồng thời nhiều kết quả có thể xảy ra sau một thao tác (redirect, toast lỗi, viền đỏ
+ * validation...) và trả về kết quả xảy ra trước cùng thời gian chờ
+ *
+ * Các điều kiện được kiểm tra xen kẽ trong cùng một vòng poll với implicit wait = 0, nên
+ * trường hợp âm tính không phải trả timeout của trường hợp dương tính và ngược lại.
+ *
+ * <pre>
+ * OutcomeRace.Result outcome = new OutcomeRace(driver)
+ *         .on("redirected", OutcomeRace.urlLeaves("/auth/login"))
+ *         .on("errorToast", OutcomeRace.visible(toastLocator))
+ *         .await(Duration.ofSeconds(10));
+ * </pre>
+ */
+public class OutcomeRace {
+
+    public static final String TIMEOUT = "timeout";
+
+    private final WebDriver driver;
+    private final WaitEngine waits;
+    private final Map<String, ExpectedCondition<?>> outcomes = new LinkedHashMap<>();
+
+    public OutcomeRace(WebDriver driver) {
+        this.driver = driver;
+        this.waits = new WaitEngine(driver);
+    }
+
+    /**
+     * Thêm một kết quả: điều kiện trả về giá trị khác null/false nghĩa là đã xảy ra
+     * Các kết quả được kiểm tra theo thứ tự thêm vào
+     */
+    public OutcomeRace on(String name, ExpectedCondition<?> condition) {
+        outcomes.put(name, condition);
+        return this;
+    }
+
+    /**
+     * Chờ tới khi một kết quả xảy ra, hoặc trả về kết quả TIMEOUT khi hết thời gian
+     */
+    public Result await(Duration timeout) {
+        return TestDeadline.spend("outcome of " + outcomes.keySet(), timeout, this::race);
+    }
+
+    private Result race(Duration timeout) {
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+        // Redirect phía client không đi qua command nào: luôn đọc URL mới (ReadCache)
+        return waits.withoutImplicitWait(() -> ReadCache.uncached(() -> {
+            while (true) {
+                for (Map.Entry<String, ExpectedCondition<?>> outcome : outcomes.entrySet()) {
+                    Object value = evaluate(outcome.getValue());
+                    if (value != null && !Boolean.FALSE.equals(value)) {
+                        Result result = new Result(outcome.getKey(), value, elapsedMillis(start));
+                        System.out.println("Outcome '" + result.getName() + "' after " + result.getLatencyMillis() + " ms");
+                        return result;
+                    }
+                }
+                if (System.nanoTime() >= deadline) {
+                    System.out.println("No outcome of " + outcomes.keySet() + " within " + timeout.toMillis() + " ms");
+                    return new Result(TIMEOUT, null, elapsedMillis(start));
+                }
+                try {
+                    Thread.sleep(WaitEngine.POLL_MILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return new Result(TIMEOUT, null, elapsedMillis(start));
+                }
+            }
+        }));
+    }
+
+    private Object evaluate(ExpectedCondition<?> condition) {
+        try {
+            return condition.apply(driver);
+        } catch (NotFoundException | StaleElementReferenceException e) {
+            return null;
+        }
+    }
+
+    private static long elapsedMillis(long start) {
+        return Duration.ofNanos(System.nanoTime() - start).toMillis();
+    }
+
+    // ==================== OUTCOMES ====================
+
+    /**
+     * URL không còn chứa {@code fragment}
+     */
+    public static ExpectedCondition<Boolean> urlLeaves(String fragment) {
+        return driver -> !driver.getCurrentUrl().contains(fragment);
+    }
+
+    /**
+     * Có element khớp locator đang hiển thị
+     */
+    public static ExpectedCondition<WebElement> visible(By locator) {
+        return driver -> {
+            for (WebElement element : driver.findElements(locator)) {
+                if (element.isDisplayed()) {
+                    return element;
+                }
+            }
+            return null;
+        };
+    }
+
+    /**
+     * Một trong các field có viền đỏ validation (xem BasePages.hasRedBorder)
+     */
+    public static ExpectedCondition<Boolean> redBorder(By... locators) {
+        return driver -> {
+            for (By locator : locators) {
+                for (WebElement element : driver.findElements(locator)) {
+                    if (BasePages.isValidationBorder(element.getCssValue("border-color"))) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        };
+    }
+
+    /**
+     * Kết quả xảy ra trước và thời gian từ lúc bắt đầu chờ
+     */
+    public static class Result {
+        private final String name;
+        private final Object value;
+        private final long latencyMillis;
+
+        Result(String name, Object value, long latencyMillis) {
+            this.name = name;
+            this.value = value;
+            this.latencyMillis = latencyMillis;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Giá trị điều kiện trả về (ví dụ WebElement của toast), null nếu timeout
+         */
+        public Object getValue() {
+            return value;
+        }
+
+        public long getLatencyMillis() {
+            return latencyMillis;
+        }
+
+        public boolean is(String outcome) {
+            return name.equals(outcome);
+        }
+
+        public boolean isTimedOut() {
+            return TIMEOUT.equals(name);
+        }
+
+        @Override
+        public String toString() {
+            return name + " (" + latencyMillis + " ms)";
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.happyorder.base;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Trạng thái của nhiều element (có trong DOM, hiển thị, text, CSS) đọc trong một lần executeScript
+ *
+ * Thay cho chuỗi isDisplayed/getText/getCssValue, mỗi cái một (hoặc vài) round trip và có thể
+ * phải chờ implicit wait khi element không có. Snapshot không chờ: gọi sau khi trang đã sẵn sàng
+ * (WaitEngine.pageReady).
+ *
+ * <pre>
+ * Map&lt;String, By&gt; locators = new LinkedHashMap&lt;&gt;();
+ * locators.put("title", By.cssSelector("h1.page-title"));
+ * locators.put("menu", By.id("mainMenu"));
+ * PageSnapshot snapshot = PageSnapshot.take(driver, locators, "color");
+ * snapshot.isDisplayed("title"); snapshot.getText("title"); snapshot.getCss("menu", "color");
+ * </pre>
+ */
+public class PageSnapshot {
+
+    private static final String SNAPSHOT_SCRIPT =
+            "var specs = arguments[0], props = arguments[1], result = {};"
+                    + WaitEngine.FIND_FUNCTION
+                    + WaitEngine.SHOWN_FUNCTION
+                    + "Object.keys(specs).forEach(function (name) {"
+                    + "  var candidates = specs[name], matches = [], error = null;"
+                    + "  for (var c = 0; c < candidates.length && !matches.length; c++) {"
+                    + "    try { matches = find(candidates[c], document); } catch (e) { error = String(e.message || e); }"
+                    + "  }"
+                    + "  var el = null;"
+                    + "  for (var i = 0; i < matches.length && !el; i++) { if (shown(matches[i])) { el = matches[i]; } }"
+                    + "  var entry = { count: matches.length, displayed: !!el, text: el ? (el.innerText || '').trim() : '', css: {} };"
+                    + "  el = el || matches[0];"
+                    + "  if (el) {"
+                    + "    var style = window.getComputedStyle(el);"
+                    + "    props.forEach(function (p) { entry.css[p] = style.getPropertyValue(p); });"
+                    + "  }"
+                    + "  if (error) { entry.error = error; }"
+                    + "  result[name] = entry;"
+                    + "});"
+                    + "return result;";
+
+    private final Map<String, Map<?, ?>> entries;
+
+    private PageSnapshot(Map<String, Map<?, ?>> entries) {
+        this.entries = entries;
+    }
+
+    /**
+     * Đọc trạng thái của các element đặt tên trong {@code locators}
+     *
+     * @param locators      tên → locator chuẩn (css, xpath, id, name, link text...) hoặc FallbackLocator
+     * @param cssProperties các thuộc tính CSS cần đọc (ví dụ "border-color")
+     */
+    public static PageSnapshot take(WebDriver driver, Map<String, By> locators, String... cssProperties) {
+        Map<String, List<List<Object>>> specs = new LinkedHashMap<>();
+        locators.forEach((name, locator) -> specs.put(name, candidates(name, locator)));
+
+        Object result = ((JavascriptExecutor) driver).executeScript(SNAPSHOT_SCRIPT, specs, Arrays.asList(cssProperties));
+        Map<String, Map<?, ?>> entries = new LinkedHashMap<>();
+        Map<?, ?> values = (Map<?, ?>) result;
+        for (String name : locators.keySet()) {
+            Map<?, ?> entry = (Map<?, ?>) values.get(name);
+            if (entry.get("error") != null) {
+                System.out.println("Snapshot: locator " + name + " failed in browser: " + entry.get("error"));
+            }
+            entries.put(name, entry);
+        }
+        return new PageSnapshot(entries);
+    }
+
+    private static List<List<Object>> candidates(String name, By locator) {
+        if (locator instanceof FallbackLocator) {
+            return FallbackLocator.toScriptCandidates(((FallbackLocator) locator).getCandidates());
+        }
+        if (locator instanceof By.Remotable) {
+            return FallbackLocator.toScriptCandidates(List.of(locator));
+        }
+        throw new IllegalArgumentException("Snapshot element \"" + name + "\" cannot use " + locator
+                + ", only standard locators can be resolved in the browser");
+    }
+
+    public Set<String> names() {
+        return Collections.unmodifiableSet(entries.keySet());
+    }
+
+    /**
+     * Có ít nhất một element khớp trong DOM
+     */
+    public boolean isPresent(String name) {
+        return getCount(name) > 0;
+    }
+
+    /**
+     * Có ít nhất một element khớp đang hiển thị
+     */
+    public boolean isDisplayed(String name) {
+        return Boolean.TRUE.equals(entry(name).get("displayed"));
+    }
+
+    /**
+     * Text của element đầu tiên đang hiển thị ("" nếu không có, giống getText)
+     */
+    public String getText(String name) {
+        Object text = entry(name).get("text");
+        return text == null ? "" : text.toString();
+    }
+
+    /**
+     * Giá trị CSS đã tính của element (đang hiển thị, hoặc element đầu tiên), null nếu không có element
+     */
+    public String getCss(String name, String property) {
+        Object css = entry(name).get("css");
+        Object value = css instanceof Map ? ((Map<?, ?>) css).get(property) : null;
+        return value == null ? null : value.toString();
+    }
+
+    public int getCount(String name) {
+        Object count = entry(name).get("count");
+        return count instanceof Number ? ((Number) count).intValue() : 0;
+    }
+
+    /**
+     * Mọi tên đều có element đang hiển thị
+     */
+    public boolean allDisplayed(String... names) {
+        for (String name : names) {
+            if (!isDisplayed(name)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Map<?, ?> entry(String name) {
+        Map<?, ?> entry = entries.get(name);
+        if (entry == null) {
+            throw new IllegalArgumentException("No element named \"" + name + "\" in snapshot " + entries.keySet());
+        }
+        return entry;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        entries.forEach((name, entry) -> text.append(String.format("  %-16s present=%-5s displayed=%-5s text=\"%s\"%n",
+                name, isPresent(name), isDisplayed(name), getText(name))));
+        return text.toString();
+    }
+}
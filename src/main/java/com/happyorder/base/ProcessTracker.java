@@ -0,0 +1,306 @@
+package com.happyorder.base;
+
+import com.happyorder.utils.ProcessUtils;
+import com.happyorder.utils.PropertiesStore;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Ghi lại pid chromedriver/Chrome của từng session vào file (tracked-processes.properties
+ * trong thư mục cache) và dọn các process mồ côi
+ *
+ * Khi run bị ngắt giữa chừng (kill JVM, Ctrl+C, agent timeout) tearDown không chạy và
+ * Chrome còn lại trên máy. Các process đó bị kill khi JVM tắt, hoặc ở lần chạy sau nếu
+ * JVM sở hữu chúng đã chết.
+ *
+ * Đồng thời đo peak RSS và CPU time của từng session (-Dprocess.sampleInterval ms)
+ * để biết một máy chạy được bao nhiêu worker. Tắt bằng -Dprocess.tracker=false.
+ */
+public class ProcessTracker {
+
+    public static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("process.tracker", "true"));
+    public static final long SAMPLE_INTERVAL_MILLIS = Long.getLong("process.sampleInterval", 2000);
+
+    private static final long OWNER_PID = ProcessHandle.current().pid();
+    private static final long OWNER_START = ProcessUtils.startMillis(ProcessHandle.current());
+
+    private static final Map<DriverSession, Usage> ACTIVE = new ConcurrentHashMap<>();
+    private static final List<Usage> FINISHED = new CopyOnWriteArrayList<>();
+    private static final AtomicBoolean ORPHANS_REAPED = new AtomicBoolean();
+    private static volatile PropertiesStore pidFile;
+    private static volatile ScheduledExecutorService sampler;
+
+    private ProcessTracker() {
+    }
+
+    /**
+     * Bắt đầu theo dõi process của session mới tạo
+     */
+    public static void track(DriverSession session) {
+        if (!ENABLED || session.getProcessMarker() == null) {
+            return;
+        }
+        reapOrphans();
+
+        List<ProcessHandle> processes = session.getProcessTree();
+        Map<String, String> entries = new HashMap<>();
+        for (ProcessHandle process : processes) {
+            entries.put(String.valueOf(process.pid()),
+                    OWNER_PID + "," + OWNER_START + "," + ProcessUtils.startMillis(process));
+        }
+        pidFile().putAll(entries);
+
+        Usage usage = new Usage(session, processes);
+        usage.sample();
+        ACTIVE.put(session, usage);
+        startSampler();
+    }
+
+    /**
+     * Gọi ngay trước khi session quit: lấy mẫu cuối, log tài nguyên đã dùng, bỏ khỏi pid file
+     */
+    public static void finish(DriverSession session) {
+        Usage usage = ACTIVE.remove(session);
+        if (usage == null) {
+            return;
+        }
+        usage.sample();
+        usage.finishedAt = System.currentTimeMillis();
+        FINISHED.add(usage);
+        System.out.println("Session " + usage.label + " resources: " + usage.describe());
+
+        PropertiesStore store = pidFile();
+        for (ProcessHandle process : usage.roots) {
+            store.remove(String.valueOf(process.pid()));
+        }
+    }
+
+    /**
+     * Kill process còn sót của các run trước (JVM sở hữu đã chết), chỉ chạy một lần mỗi JVM
+     */
+    public static void reapOrphans() {
+        if (!ENABLED || !ORPHANS_REAPED.compareAndSet(false, true)) {
+            return;
+        }
+        int reaped = reap(false);
+        if (reaped > 0) {
+            System.out.println("Reaped " + reaped + " orphaned browser process(es) from previous runs");
+        }
+    }
+
+    /**
+     * Kill process còn sót của JVM này (gọi sau khi đã quit mọi session)
+     */
+    public static void reapOwn() {
+        if (!ENABLED) {
+            return;
+        }
+        int reaped = reap(true);
+        if (reaped > 0) {
+            System.out.println("Reaped " + reaped + " browser process(es) left after quit");
+        }
+    }
+
+    /**
+     * Tổng kết tài nguyên các session đã đóng và ước lượng số worker máy này chịu được
+     */
+    public static String report() {
+        List<Usage> usages = new ArrayList<>(FINISHED);
+        if (usages.isEmpty()) {
+            return "no tracked sessions";
+        }
+
+        long maxPeakKb = 0;
+        long totalPeakKb = 0;
+        long totalCpuMillis = 0;
+        double maxCores = 0;
+        for (Usage usage : usages) {
+            maxPeakKb = Math.max(maxPeakKb, usage.peakRssKb);
+            totalPeakKb += Math.max(usage.peakRssKb, 0);
+            totalCpuMillis += usage.cpuMillis();
+            maxCores = Math.max(maxCores, usage.averageCores());
+        }
+
+        StringBuilder report = new StringBuilder()
+                .append("sessions=").append(usages.size())
+                .append(", maxPeakRssMb=").append(maxPeakKb / 1024)
+                .append(", avgPeakRssMb=").append(totalPeakKb / usages.size() / 1024)
+                .append(", totalCpuS=").append(String.format("%.1f", totalCpuMillis / 1000.0));
+
+        // Worker bị giới hạn bởi RAM (theo peak lớn nhất) hoặc CPU (theo session ngốn CPU nhất)
+        long memTotalKb = ProcessUtils.memTotalKb();
+        int cores = Runtime.getRuntime().availableProcessors();
+        long byMemory = memTotalKb > 0 && maxPeakKb > 0 ? (long) (memTotalKb * 0.8 / maxPeakKb) : -1;
+        long byCpu = maxCores > 0 ? (long) (cores / maxCores) : -1;
+        if (byMemory > 0 || byCpu > 0) {
+            report.append(", sustainableWorkers=")
+                    .append(byMemory > 0 && byCpu > 0 ? Math.min(byMemory, byCpu) : Math.max(byMemory, byCpu))
+                    .append(" (memory ").append(byMemory > 0 ? byMemory : "n/a")
+                    .append(", cpu ").append(byCpu > 0 ? byCpu : "n/a").append(")");
+        }
+        return report.toString();
+    }
+
+    // ==================== REAPING ====================
+
+    private static int reap(boolean own) {
+        List<ProcessHandle> victims = new ArrayList<>();
+        PropertiesStore store = pidFile();
+
+        for (Map.Entry<String, String> entry : store.asMap().entrySet()) {
+            String[] parts = entry.getValue().split(",");
+            if (parts.length != 3) {
+                store.remove(entry.getKey());
+                continue;
+            }
+            long ownerPid = Long.parseLong(parts[0]);
+            boolean mine = ownerPid == OWNER_PID && Long.parseLong(parts[1]) == OWNER_START;
+            if (own != mine || (!own && isAlive(ownerPid, Long.parseLong(parts[1])))) {
+                continue;
+            }
+            long pid = Long.parseLong(entry.getKey());
+            long start = Long.parseLong(parts[2]);
+            ProcessHandle.of(pid)
+                    .filter(process -> ProcessUtils.startMillis(process) == start)
+                    .ifPresent(victims::add);
+            store.remove(entry.getKey());
+        }
+
+        // Chrome mang marker "--happyorder-session=<pid JVM>-<seq>", tìm được cả khi pid file bị mất
+        for (ProcessHandle process : ProcessUtils.findByArgument(DriverFactory.SESSION_MARKER)) {
+            Optional<Long> ownerPid = markerOwner(process);
+            if (ownerPid.isEmpty()) {
+                continue;
+            }
+            boolean mine = ownerPid.get() == OWNER_PID;
+            if (own ? mine : !mine && ProcessHandle.of(ownerPid.get()).isEmpty()) {
+                victims.add(process);
+                process.parent()
+                        .filter(parent -> parent.info().command().map(cmd -> cmd.contains("driver")).orElse(false))
+                        .ifPresent(victims::add);
+            }
+        }
+
+        List<ProcessHandle> tree = ProcessUtils.withDescendants(victims);
+        ProcessUtils.destroyAll(tree);
+        return tree.size();
+    }
+
+    private static Optional<Long> markerOwner(ProcessHandle process) {
+        return process.info().arguments().flatMap(args -> {
+            for (String arg : args) {
+                if (arg.startsWith(DriverFactory.SESSION_MARKER)) {
+                    String value = arg.substring(DriverFactory.SESSION_MARKER.length());
+                    int dash = value.indexOf('-');
+                    try {
+                        return Optional.of(Long.parseLong(dash < 0 ? value : value.substring(0, dash)));
+                    } catch (NumberFormatException e) {
+                        return Optional.empty();
+                    }
+                }
+            }
+            return Optional.empty();
+        });
+    }
+
+    private static boolean isAlive(long pid, long startMillis) {
+        return ProcessHandle.of(pid).filter(process -> ProcessUtils.startMillis(process) == startMillis).isPresent();
+    }
+
+    private static PropertiesStore pidFile() {
+        if (pidFile == null) {
+            synchronized (ProcessTracker.class) {
+                if (pidFile == null) {
+                    pidFile = PropertiesStore.inCacheDir("tracked-processes.properties");
+                }
+            }
+        }
+        return pidFile;
+    }
+
+    // ==================== SAMPLING ====================
+
+    private static void startSampler() {
+        if (sampler != null) {
+            return;
+        }
+        synchronized (ProcessTracker.class) {
+            if (sampler == null) {
+                sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                    Thread thread = new Thread(runnable, "process-sampler");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+                sampler.scheduleWithFixedDelay(() -> {
+                    for (Usage usage : ACTIVE.values()) {
+                        try {
+                            usage.sample();
+                        } catch (Exception e) {
+                            System.err.println("Process sampler error: " + e.getMessage());
+                        }
+                    }
+                }, SAMPLE_INTERVAL_MILLIS, SAMPLE_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Tài nguyên một session đã dùng
+     */
+    private static class Usage {
+        private final String label;
+        private final List<ProcessHandle> roots;
+        private final long startedAt = System.currentTimeMillis();
+        private final Map<Long, Long> cpuByPid = new HashMap<>();
+        private long peakRssKb = -1;
+        private long finishedAt;
+
+        Usage(DriverSession session, List<ProcessHandle> roots) {
+            String marker = session.getProcessMarker();
+            this.label = session.getBrowser() + "#" + marker.substring(marker.lastIndexOf('-') + 1);
+            this.roots = roots;
+        }
+
+        synchronized void sample() {
+            List<ProcessHandle> tree = ProcessUtils.withDescendants(roots);
+            peakRssKb = Math.max(peakRssKb, ProcessUtils.totalRssKb(tree));
+            for (ProcessHandle process : tree) {
+                long cpu = ProcessUtils.cpuMillis(process);
+                if (cpu >= 0) {
+                    // Giữ giá trị lớn nhất để không mất CPU của renderer đã thoát
+                    cpuByPid.merge(process.pid(), cpu, Math::max);
+                }
+            }
+        }
+
+        synchronized long cpuMillis() {
+            return cpuByPid.values().stream().mapToLong(Long::longValue).sum();
+        }
+
+        /**
+         * Số core trung bình session chiếm trong suốt thời gian sống
+         */
+        double averageCores() {
+            long lifetime = (finishedAt > 0 ? finishedAt : System.currentTimeMillis()) - startedAt;
+            return lifetime <= 0 ? 0 : (double) cpuMillis() / lifetime;
+        }
+
+        String describe() {
+            long lifetime = (finishedAt > 0 ? finishedAt : System.currentTimeMillis()) - startedAt;
+            return "lifetime " + lifetime / 1000 + " s, peak RSS "
+                    + (peakRssKb < 0 ? "n/a" : (peakRssKb / 1024) + " MB")
+                    + ", CPU " + String.format("%.1f", cpuMillis() / 1000.0) + " s"
+                    + String.format(" (%.2f cores)", averageCores());
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.happyorder.base;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.decorators.Decorated;
+import org.openqa.selenium.support.decorators.WebDriverDecorator;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Nhớ kết quả các lệnh đọc không đổi trạng thái (getCurrentUrl, getTitle) của một session
+ * để lần đọc lặp lại không phải gửi tới chromedriver
+ *
+ * Mọi command khác (get, navigate, click, submit, sendKeys, executeScript, Actions, switchTo...)
+ * xoá cache trước khi chạy; giá trị cũng chỉ dùng trong -Ddriver.readCache.ttl ms (mặc định 250)
+ * vì trang SPA có thể tự đổi URL/title sau một request. Với -Ddriver.readCache.skipSameUrlGet=true,
+ * driver.get(url) không gửi khi browser đang ở đúng url (không reload trang).
+ * Redirect phía client (login → dashboard) không đi qua command nào, nên trong các vòng chờ
+ * (WaitEngine.until/poll, OutcomeRace) mọi lần đọc đều bỏ qua cache (xem uncached).
+ * Bật bằng -Ddriver.readCache=true.
+ */
+public class ReadCache extends WebDriverDecorator<WebDriver> {
+
+    public static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("driver.readCache", "false"));
+    public static final long TTL_MILLIS = Long.getLong("driver.readCache.ttl", 250);
+    public static final boolean SKIP_SAME_URL_GET =
+            Boolean.parseBoolean(System.getProperty("driver.readCache.skipSameUrlGet", "false"));
+
+    /** Lệnh đọc của WebDriver được cache */
+    private static final Set<String> CACHED = Set.of("getCurrentUrl", "getTitle");
+
+    /** Lệnh chỉ đọc, không làm đổi URL/title nên không xoá cache */
+    private static final Set<String> READ_ONLY = Set.of("getCurrentUrl", "getTitle", "getWindowHandle",
+            "getWindowHandles", "getPageSource", "findElement", "findElements", "getText", "getAttribute",
+            "getDomAttribute", "getDomProperty", "getCssValue", "getTagName", "isDisplayed", "isEnabled",
+            "isSelected", "getLocation", "getSize", "getRect", "getAccessibleName", "getAriaRole",
+            "getShadowRoot", "getScreenshotAs", "getCapabilities", "getWrappedDriver", "getWrappedElement",
+            "toString", "hashCode", "equals");
+
+    /** Độ sâu của các uncached() đang chạy trên thread */
+    private static final ThreadLocal<Integer> UNCACHED = ThreadLocal.withInitial(() -> 0);
+
+    private static final AtomicLong HITS = new AtomicLong();
+    private static final AtomicLong MISSES = new AtomicLong();
+    private static final AtomicLong SKIPPED_GETS = new AtomicLong();
+
+    private final Map<String, Value> values = new ConcurrentHashMap<>();
+
+    /**
+     * Bọc driver (trả lại chính driver nếu cache bị tắt)
+     */
+    public WebDriver wrap(WebDriver driver) {
+        return ENABLED ? decorate(driver) : driver;
+    }
+
+    /**
+     * Chạy {@code action} với lệnh đọc luôn gửi tới browser (giá trị mới vẫn được nhớ cho sau đó),
+     * dùng cho các vòng poll chờ URL/title đổi
+     */
+    public static <T> T uncached(Supplier<T> action) {
+        UNCACHED.set(UNCACHED.get() + 1);
+        try {
+            return action.get();
+        } finally {
+            UNCACHED.set(UNCACHED.get() - 1);
+        }
+    }
+
+    /**
+     * Xoá mọi giá trị đã nhớ
+     */
+    public void clear() {
+        values.clear();
+    }
+
+    @Override
+    public Object call(Decorated<?> target, Method method, Object[] args) throws Throwable {
+        String name = method.getName();
+        boolean onDriver = target.getOriginal() instanceof WebDriver;
+        if (onDriver && CACHED.contains(name) && (args == null || args.length == 0)) {
+            Value cached = UNCACHED.get() > 0 ? null : values.get(name);
+            if (cached != null && cached.isFresh()) {
+                HITS.incrementAndGet();
+                return cached.value;
+            }
+            MISSES.incrementAndGet();
+            Object result = super.call(target, method, args);
+            values.put(name, new Value(result));
+            return result;
+        }
+        if (onDriver && SKIP_SAME_URL_GET && "get".equals(name) && args != null && args.length == 1
+                && args[0].equals(currentUrl((WebDriver) target.getOriginal()))) {
+            SKIPPED_GETS.incrementAndGet();
+            return null;
+        }
+        if (!READ_ONLY.contains(name)) {
+            values.clear();
+        }
+        return super.call(target, method, args);
+    }
+
+    private Object currentUrl(WebDriver driver) {
+        Value cached = values.get("getCurrentUrl");
+        if (cached != null && cached.isFresh()) {
+            HITS.incrementAndGet();
+            return cached.value;
+        }
+        MISSES.incrementAndGet();
+        String url = driver.getCurrentUrl();
+        values.put("getCurrentUrl", new Value(url));
+        return url;
+    }
+
+    /**
+     * Số lần đọc từ cache / phải gửi lệnh / driver.get được bỏ qua của mọi session
+     */
+    public static String metrics() {
+        long hits = HITS.get();
+        long reads = hits + MISSES.get();
+        return String.format("hits=%d, misses=%d, skippedGets=%d, hitRate=%d%%",
+                hits, MISSES.get(), SKIPPED_GETS.get(), reads == 0 ? 0 : hits * 100 / reads);
+    }
+
+    private static class Value {
+        private final Object value;
+        private final long readAt = System.currentTimeMillis();
+
+        Value(Object value) {
+            this.value = value;
+        }
+
+        boolean isFresh() {
+            return System.currentTimeMillis() - readAt <= TTL_MILLIS;
+        }
+    }
+}
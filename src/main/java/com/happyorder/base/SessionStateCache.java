@@ -0,0 +1,271 @@
+package com.happyorder.base;
+
+import com.happyorder.pages.LoginPage;
+import org.openqa.selenium.By;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Cache trạng thái đăng nhập (cookies, localStorage, sessionStorage) theo từng tài khoản
+ *
+ * Mỗi tài khoản chỉ đăng nhập qua UI (LoginPage) một lần. Các session sau được inject
+ * trạng thái đã lưu rồi mở thẳng trang cần test.
+ * Cache bị huỷ khi token hết hạn (cookie expiry, "exp" của JWT, hoặc -Dsession.cache.ttl giây)
+ * hoặc khi session inject vào vẫn bị đẩy về trang login. App là SPA, redirect về login chạy từ JS sau
+ * khi trang boot, nên kết quả chỉ được đọc khi trang đã render xong: URL về login, hoặc thấy
+ * -Dsession.cache.loggedInMarker (CSS của một element chỉ có khi đã đăng nhập).
+ *
+ * Suite dùng qua BaseTest.openLoggedIn (ví dụ HomeTest khi có -Dhome.username/-Dhome.password).
+ */
+public class SessionStateCache {
+
+    public static final long TTL_SECONDS = Long.getLong("session.cache.ttl", 1800);
+    private static final String BOOTSTRAP_PATH = System.getProperty("session.cache.bootstrapPath", "/favicon.ico");
+    private static final String LOGIN_PATH = "/auth/login";
+    private static final int LOGIN_TIMEOUT = 15;
+    private static final String LOGGED_IN_MARKER = System.getProperty("session.cache.loggedInMarker",
+            ".ant-layout-sider, .ant-layout-header, .ant-menu");
+    /** Thời gian tối đa (ms) chờ SPA chọn route sau khi inject */
+    private static final long VERIFY_WINDOW_MILLIS = Long.getLong("session.cache.verifyWindow", 3000);
+    private static final String REJECTED = "rejected";
+    private static final String ACCEPTED = "accepted";
+
+    private static final Pattern JWT = Pattern.compile("^[A-Za-z0-9_-]+\\.([A-Za-z0-9_-]+)\\.[A-Za-z0-9_-]*$");
+    private static final Pattern JWT_EXP = Pattern.compile("\"exp\"\\s*:\\s*(\\d+)");
+
+    private static final Map<String, SessionState> CACHE = new ConcurrentHashMap<>();
+    private static final Map<String, Object> LOCKS = new ConcurrentHashMap<>();
+
+    private SessionStateCache() {
+    }
+
+    /**
+     * Mở {@code targetUrl} với trạng thái đã đăng nhập bằng {@code username}
+     * Dùng trạng thái trong cache nếu còn hạn, ngược lại đăng nhập qua LoginPage và lưu lại
+     *
+     * @throws IllegalArgumentException nếu {@code loginUrl} và {@code targetUrl} khác origin
+     */
+    public static void openLoggedIn(WebDriver driver, String loginUrl, String username, String password, String targetUrl) {
+        requireSameOrigin(loginUrl, targetUrl);
+        String key = cacheKey(loginUrl, username);
+
+        SessionState state = CACHE.get(key);
+        if (state != null && !state.isExpired()) {
+            inject(driver, state, targetUrl);
+            if (!isRejected(driver)) {
+                System.out.println("Restored cached session for " + username);
+                return;
+            }
+            System.out.println("Cached session for " + username + " was rejected, logging in again");
+            CACHE.remove(key, state);
+        } else if (state != null) {
+            System.out.println("Cached session for " + username + " expired, logging in again");
+            CACHE.remove(key, state);
+        }
+
+        // Chỉ một thread đăng nhập cho mỗi tài khoản, các thread khác dùng kết quả
+        synchronized (LOCKS.computeIfAbsent(key, k -> new Object())) {
+            state = CACHE.get(key);
+            if (state == null || state.isExpired()) {
+                state = loginAndCapture(driver, loginUrl, username, password);
+                CACHE.put(key, state);
+            }
+        }
+        inject(driver, state, targetUrl);
+    }
+
+    /**
+     * Xoá trạng thái đã lưu của tài khoản (ví dụ sau khi đổi mật khẩu)
+     */
+    public static void invalidate(String loginUrl, String username) {
+        CACHE.remove(cacheKey(loginUrl, username));
+    }
+
+    public static void clear() {
+        CACHE.clear();
+    }
+
+    // ==================== LOGIN & CAPTURE ====================
+
+    private static SessionState loginAndCapture(WebDriver driver, String loginUrl, String username, String password) {
+        driver.get(loginUrl);
+        LoginPage loginPage = new LoginPage(driver);
+        try {
+            loginPage.login(username, password);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Login interrupted for " + username, e);
+        }
+        loginPage.clickbtnDangNhap();
+
+        try {
+            new WebDriverWait(driver, Duration.ofSeconds(LOGIN_TIMEOUT))
+                    .until(ExpectedConditions.not(ExpectedConditions.urlContains(LOGIN_PATH)));
+        } catch (Exception e) {
+            throw new IllegalStateException("Login verification failed for " + username
+                    + ", still on " + driver.getCurrentUrl());
+        }
+
+        SessionState state = capture(driver);
+        System.out.println("Cached session for " + username + " (" + state.cookies.size() + " cookies, expires "
+                + new Date(state.expiresAt) + ")");
+        return state;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static SessionState capture(WebDriver driver) {
+        JavascriptExecutor js = (JavascriptExecutor) driver;
+        Map<String, Object> storage = (Map<String, Object>) js.executeScript(
+                "function dump(s) { var o = {}; for (var i = 0; i < s.length; i++) { var k = s.key(i); o[k] = s.getItem(k); } return o; }"
+                        + "return { local: dump(window.localStorage), session: dump(window.sessionStorage) };");
+
+        SessionState state = new SessionState();
+        state.cookies = new ArrayList<>(driver.manage().getCookies());
+        state.localStorage = toStringMap((Map<String, Object>) storage.get("local"));
+        state.sessionStorage = toStringMap((Map<String, Object>) storage.get("session"));
+        state.expiresAt = computeExpiry(state);
+        return state;
+    }
+
+    // ==================== INJECT ====================
+
+    private static void inject(WebDriver driver, SessionState state, String targetUrl) {
+        // Cần đứng đúng origin mới set được cookies và storage
+        driver.get(origin(targetUrl) + BOOTSTRAP_PATH);
+
+        for (Cookie cookie : state.cookies) {
+            try {
+                driver.manage().addCookie(cookie);
+            } catch (Exception e) {
+                System.out.println("Skipped cookie " + cookie.getName() + ": " + e.getMessage());
+            }
+        }
+        ((JavascriptExecutor) driver).executeScript(
+                "var l = arguments[0], s = arguments[1];"
+                        + "Object.keys(l).forEach(function (k) { window.localStorage.setItem(k, l[k]); });"
+                        + "Object.keys(s).forEach(function (k) { window.sessionStorage.setItem(k, s[k]); });",
+                state.localStorage, state.sessionStorage);
+
+        driver.get(targetUrl);
+    }
+
+    // ==================== HELPERS ====================
+
+    /**
+     * Trạng thái inject bị từ chối: SPA đưa về trang login sau khi boot
+     * Chờ trang render xong rồi đua giữa URL login và dấu hiệu đã đăng nhập; không bên nào thắng
+     * trong VERIFY_WINDOW_MILLIS thì đọc URL lần cuối
+     */
+    private static boolean isRejected(WebDriver driver) {
+        new WaitEngine(driver).pageReady(Duration.ofSeconds(LOGIN_TIMEOUT));
+        OutcomeRace.Result result = new OutcomeRace(driver)
+                .on(REJECTED, ExpectedConditions.urlContains(LOGIN_PATH))
+                .on(ACCEPTED, OutcomeRace.visible(By.cssSelector(LOGGED_IN_MARKER)))
+                .await(Duration.ofMillis(VERIFY_WINDOW_MILLIS));
+        if (result.isTimedOut()) {
+            return driver.getCurrentUrl().contains(LOGIN_PATH);
+        }
+        return result.is(REJECTED);
+    }
+
+    private static long computeExpiry(SessionState state) {
+        long expiresAt = System.currentTimeMillis() + TTL_SECONDS * 1000;
+        for (Cookie cookie : state.cookies) {
+            if (cookie.getExpiry() != null) {
+                expiresAt = Math.min(expiresAt, cookie.getExpiry().getTime());
+            }
+        }
+        List<String> values = new ArrayList<>(state.localStorage.values());
+        values.addAll(state.sessionStorage.values());
+        for (Cookie cookie : state.cookies) {
+            values.add(cookie.getValue());
+        }
+        for (String value : values) {
+            long jwtExpiry = jwtExpiry(value);
+            if (jwtExpiry > 0) {
+                expiresAt = Math.min(expiresAt, jwtExpiry);
+            }
+        }
+        return expiresAt;
+    }
+
+    /**
+     * Thời điểm hết hạn (ms) của giá trị dạng JWT, 0 nếu không phải JWT
+     */
+    static long jwtExpiry(String value) {
+        if (value == null) {
+            return 0;
+        }
+        String token = value.startsWith("Bearer ") ? value.substring(7) : value.replace("\"", "");
+        Matcher matcher = JWT.matcher(token);
+        if (!matcher.matches()) {
+            return 0;
+        }
+        try {
+            String payload = new String(Base64.getUrlDecoder().decode(matcher.group(1)), StandardCharsets.UTF_8);
+            Matcher exp = JWT_EXP.matcher(payload);
+            return exp.find() ? Long.parseLong(exp.group(1)) * 1000 : 0;
+        } catch (IllegalArgumentException e) {
+            return 0;
+        }
+    }
+
+    private static Map<String, String> toStringMap(Map<String, Object> raw) {
+        Map<String, String> result = new HashMap<>();
+        if (raw != null) {
+            raw.forEach((key, value) -> result.put(key, value == null ? null : value.toString()));
+        }
+        return result;
+    }
+
+    /**
+     * Cookies và storage chỉ dùng được trên origin đã lưu chúng: trang đích khác origin thì
+     * trạng thái inject bị browser bỏ qua và mọi test lại phải đăng nhập
+     */
+    static void requireSameOrigin(String loginUrl, String targetUrl) {
+        if (!origin(loginUrl).equalsIgnoreCase(origin(targetUrl))) {
+            throw new IllegalArgumentException("Cannot reuse a login on " + origin(loginUrl) + " for " + targetUrl
+                    + ": cookies and storage only apply to the origin they were captured on");
+        }
+    }
+
+    private static String cacheKey(String loginUrl, String username) {
+        return origin(loginUrl) + "|" + username;
+    }
+
+    private static String origin(String url) {
+        URI uri = URI.create(url);
+        return uri.getScheme() + "://" + uri.getAuthority();
+    }
+
+    /**
+     * Trạng thái đăng nhập đã lưu của một tài khoản
+     */
+    private static class SessionState {
+        private List<Cookie> cookies;
+        private Map<String, String> localStorage;
+        private Map<String, String> sessionStorage;
+        private long expiresAt;
+
+        // Trừ hao 30 giây để token không hết hạn giữa chừng test
+        boolean isExpired() {
+            return System.currentTimeMillis() > expiresAt - 30_000;
+        }
+    }
+}
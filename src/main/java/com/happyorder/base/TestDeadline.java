@@ -0,0 +1,180 @@
+package com.happyorder.base;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Ngân sách thời gian của một test (một lần gọi test method, tức là một dòng data provider)
+ *
+ * BaseTest bắt đầu deadline ở @BeforeMethod (-Dtest.budget giây, mặc định 90, 0 = tắt).
+ * Mọi lần chờ của WaitEngine (và BasePages, WebElementUtils, page object dùng WaitEngine)
+ * lấy timeout = min(timeout của nó, thời gian còn lại), nên các lần chờ lồng nhau không cộng dồn.
+ * Hết ngân sách thì test fail ngay với {@link ExceededException} kèm bảng thời gian đã tiêu
+ * vào từng lần chờ; DriverWatchdog cũng chặn command tiếp theo của driver.
+ */
+public class TestDeadline {
+
+    public static final long BUDGET_SECONDS = Long.getLong("test.budget", 90);
+
+    private static final ThreadLocal<TestDeadline> CURRENT = new ThreadLocal<>();
+
+    private final String testName;
+    private final Duration budget;
+    private final long startedAt;
+    private final long deadline;
+    private final Map<String, long[]> spent = new LinkedHashMap<>();
+    private int depth;
+    private boolean exceeded;
+
+    private TestDeadline(String testName, Duration budget) {
+        this.testName = testName;
+        this.budget = budget;
+        this.startedAt = System.nanoTime();
+        this.deadline = startedAt + budget.toNanos();
+    }
+
+    /**
+     * Bắt đầu ngân sách cho test của thread hiện tại (thay thế ngân sách cũ nếu có)
+     */
+    public static void start(String testName, Duration budget) {
+        if (budget.isZero() || budget.isNegative()) {
+            CURRENT.remove();
+            return;
+        }
+        CURRENT.set(new TestDeadline(testName, budget));
+    }
+
+    /**
+     * Kết thúc ngân sách của test hiện tại (teardown không bị giới hạn)
+     */
+    public static void finish() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Chạy {@code action} ngoài ngân sách của test hiện tại (chụp screenshot, in page source khi
+     * test đã fail vì hết ngân sách), rồi khôi phục ngân sách
+     */
+    public static void unbounded(Runnable action) {
+        TestDeadline current = CURRENT.get();
+        CURRENT.remove();
+        try {
+            action.run();
+        } finally {
+            if (current != null) {
+                CURRENT.set(current);
+            }
+        }
+    }
+
+    /**
+     * Thời gian còn lại của test hiện tại, null nếu không có ngân sách
+     */
+    public static Duration remaining() {
+        TestDeadline current = CURRENT.get();
+        return current == null ? null : Duration.ofNanos(Math.max(0, current.deadline - System.nanoTime()));
+    }
+
+    /**
+     * Chạy một lần chờ với timeout bị giới hạn bởi ngân sách còn lại và ghi lại thời gian đã tiêu
+     * Chỉ lần chờ ngoài cùng được ghi vào bảng (pageReady gồm documentReady + domSettled là một dòng)
+     */
+    public static <T> T spend(String label, Duration timeout, Function<Duration, T> wait) {
+        TestDeadline current = CURRENT.get();
+        if (current == null) {
+            return wait.apply(timeout);
+        }
+        current.check(label);
+        long left = current.deadline - System.nanoTime();
+        boolean clamped = left < timeout.toNanos();
+        Duration effective = clamped ? Duration.ofNanos(left) : timeout;
+
+        long start = System.nanoTime();
+        current.depth++;
+        T result = null;
+        RuntimeException failure = null;
+        try {
+            result = wait.apply(effective);
+        } catch (RuntimeException e) {
+            failure = e;
+        } finally {
+            if (--current.depth == 0) {
+                current.record(label, System.nanoTime() - start);
+            }
+        }
+        if (clamped && !(failure instanceof ExceededException) && System.nanoTime() >= current.deadline) {
+            // Lần chờ timeout (hoặc trả về false/TIMEOUT) vì bị cắt ngắn: hết ngân sách
+            throw current.exceeded(label, failure);
+        }
+        if (failure != null) {
+            throw failure;
+        }
+        return result;
+    }
+
+    /**
+     * Fail ngay nếu test hiện tại đã hết ngân sách (DriverWatchdog gọi trước mỗi command)
+     */
+    public static void checkCurrent(String action) {
+        TestDeadline current = CURRENT.get();
+        if (current != null) {
+            current.check(action);
+        }
+    }
+
+    private void check(String action) {
+        if (System.nanoTime() >= deadline) {
+            throw exceeded(action, null);
+        }
+    }
+
+    private void record(String label, long nanos) {
+        long[] entry = spent.computeIfAbsent(label, key -> new long[2]);
+        entry[0] += nanos;
+        entry[1]++;
+    }
+
+    private ExceededException exceeded(String action, Throwable cause) {
+        String message = "Test " + testName + " exceeded its " + budget.getSeconds() + " s budget (-Dtest.budget) at "
+                + action + "\n" + breakdown();
+        if (!exceeded) {
+            exceeded = true;
+            System.err.println(message);
+        }
+        return new ExceededException(message, cause);
+    }
+
+    /**
+     * Thời gian đã tiêu theo từng lần chờ, lâu nhất trước
+     */
+    String breakdown() {
+        long elapsed = System.nanoTime() - startedAt;
+        long waited = 0;
+        StringBuilder table = new StringBuilder();
+        List<Map.Entry<String, long[]>> entries = new ArrayList<>(spent.entrySet());
+        entries.sort((a, b) -> Long.compare(b.getValue()[0], a.getValue()[0]));
+        for (Map.Entry<String, long[]> entry : entries) {
+            long[] value = entry.getValue();
+            waited += value[0];
+            table.append(String.format("  %8d ms  %3dx  %s%n", value[0] / 1_000_000, value[1], entry.getKey()));
+        }
+        table.append(String.format("  %8d ms        other (commands, browser start, test code)%n",
+                Math.max(0, elapsed - waited) / 1_000_000));
+        return table.toString();
+    }
+
+    /**
+     * Test đã dùng hết ngân sách thời gian
+     */
+    public static class ExceededException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        ExceededException(String message, Throwable cause) {
+            super(message, cause);
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package com.happyorder.base;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ghi lại mọi toast/alert xuất hiện trên trang vào một buffer trong trang (window.__happyorderToasts)
+ *
+ * Script được cài bằng CDP (Page.addScriptToEvaluateOnNewDocument) nên chạy trước script của trang
+ * ở mọi document mới; browser không có CDP thì script được cài vào trang hiện tại ở lần đọc đầu.
+ * MutationObserver ghi text của mỗi node khớp -Dtoast.selectors ngay khi nó xuất hiện, nên toast
+ * tự đóng sau 3 giây (Ant Design) vẫn đọc được sau đó, trong một lần executeScript, không có stale.
+ * Bật bằng -Dtoast.capture=true (mặc định BasePages chờ toast bằng locator). Trang dùng capture nên
+ * gọi clear() trước thao tác; BasePages.getToastMessageText chỉ trả về toast khớp locator của nó.
+ */
+public class ToastCapture {
+
+    public static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("toast.capture", "false"));
+    public static final String SELECTORS = System.getProperty("toast.selectors",
+            ".ant-message-notice, .ant-notification-notice, .Toastify__toast, .toast, [role='alert']");
+
+    /** Cài observer vào document hiện tại (không làm gì nếu đã cài) */
+    private static final String INSTALL_SCRIPT =
+            "(function () {"
+                    + "  if (window.__happyorderToasts) { return; }"
+                    + "  var selectors = " + new Json().toJson(SELECTORS) + ";"
+                    + "  var buffer = window.__happyorderToasts = [];"
+                    + "  var nodes = window.__happyorderToastNodes = [];"
+                    + "  var waiters = window.__happyorderToastWaiters = [];"
+                    + "  var seen = new WeakSet();"
+                    + "  function outermost(el) {"
+                    + "    var top = null;"
+                    + "    while (el) { top = el; el = el.parentElement && el.parentElement.closest(selectors); }"
+                    + "    return top;"
+                    + "  }"
+                    + "  function record(el) {"
+                    + "    var text = (el.innerText || el.textContent || '').trim();"
+                    + "    if (!text || seen.has(el)) { return; }"
+                    + "    seen.add(el);"
+                    + "    var ancestors = [];"
+                    + "    for (var a = el.parentElement; a; a = a.parentElement) { ancestors.push(a); }"
+                    + "    nodes.push({ el: el, ancestors: ancestors });"
+                    + "    buffer.push({ text: text, source: el.className || el.getAttribute('role') || el.tagName,"
+                    + "      time: Date.now() });"
+                    + "    waiters.splice(0).forEach(function (waiter) { waiter(); });"
+                    + "  }"
+                    + "  function scan(node) {"
+                    + "    var el = node.nodeType === 1 ? node : node.parentElement;"
+                    + "    if (!el) { if (node.querySelectorAll) { node.querySelectorAll(selectors).forEach("
+                    + "      function (match) { record(outermost(match)); }); } return; }"
+                    + "    var own = el.closest(selectors);"
+                    + "    if (own) { record(outermost(own)); }"
+                    + "    el.querySelectorAll(selectors).forEach(function (match) { record(outermost(match)); });"
+                    + "  }"
+                    + "  scan(document);"
+                    + "  new MutationObserver(function (mutations) {"
+                    + "    mutations.forEach(function (m) { scan(m.target); m.addedNodes.forEach(scan); });"
+                    + "  }).observe(document, { childList: true, subtree: true, characterData: true });"
+                    + "})();";
+
+    private static final String READ_SCRIPT =
+            INSTALL_SCRIPT + "return window.__happyorderToasts;";
+
+    private static final String CLEAR_SCRIPT =
+            INSTALL_SCRIPT + "window.__happyorderToasts.length = 0; window.__happyorderToastNodes.length = 0;";
+
+    /**
+     * Toast đầu tiên trong buffer khớp locator arguments[1] (danh sách [using, value], null = mọi toast),
+     * chờ tối đa arguments[0] ms nếu chưa có. Node của toast khớp khi nó là, chứa, hoặc nằm trong một
+     * element của locator (tổ tiên được ghi lại lúc toast xuất hiện, nên toast đã đóng vẫn so được).
+     */
+    private static final String AWAIT_SCRIPT =
+            "var max = arguments[0], candidates = arguments[1], done = arguments[arguments.length - 1];"
+                    + INSTALL_SCRIPT
+                    + WaitEngine.FIND_FUNCTION
+                    + "var buffer = window.__happyorderToasts, nodes = window.__happyorderToastNodes;"
+                    + "function related(node) {"
+                    + "  var el = node.el, root = el.getRootNode(), roots = root === document ? [document] : [document, root];"
+                    + "  for (var c = 0; c < candidates.length; c++) {"
+                    + "    var using = candidates[c][0], value = candidates[c][1];"
+                    + "    if (using === 'css selector') { try { if (el.matches(value) || el.closest(value)) { return true; } } catch (e) {} }"
+                    + "    for (var r = 0; r < roots.length; r++) {"
+                    + "      var found;"
+                    + "      try { found = find(candidates[c], roots[r]); } catch (e) { found = []; }"
+                    + "      for (var i = 0; i < found.length; i++) {"
+                    + "        var m = found[i];"
+                    + "        if (m === el || el.contains(m) || node.ancestors.indexOf(m) >= 0) { return true; }"
+                    + "      }"
+                    + "    }"
+                    + "  }"
+                    + "  return false;"
+                    + "}"
+                    + "function first() {"
+                    + "  for (var i = 0; i < buffer.length; i++) {"
+                    + "    if (!candidates || (nodes[i] && related(nodes[i]))) { return buffer[i]; }"
+                    + "  }"
+                    + "  return null;"
+                    + "}"
+                    + "var found = first();"
+                    + "if (found) { done(found); return; }"
+                    + "var finished = false;"
+                    + "var timer = setTimeout(function () { finished = true; done(null); }, max);"
+                    + "function waiter() {"
+                    + "  if (finished) { return; }"
+                    + "  var match = first();"
+                    + "  if (match) { finished = true; clearTimeout(timer); done(match); }"
+                    + "  else { window.__happyorderToastWaiters.push(waiter); }"
+                    + "}"
+                    + "window.__happyorderToastWaiters.push(waiter);";
+
+    private static final long AWAIT_MAX_MILLIS = 25_000;
+
+    private final WebDriver driver;
+
+    private ToastCapture(WebDriver driver) {
+        this.driver = driver;
+    }
+
+    /**
+     * Bật capture cho session: script được cài vào mọi document mới qua CDP (nếu có)
+     */
+    static ToastCapture attach(WebDriver rawDriver, WebDriver driver) {
+        if (rawDriver instanceof HasDevTools) {
+            try {
+                DevTools devTools = ((HasDevTools) rawDriver).getDevTools();
+                devTools.createSessionIfThereIsNotOne();
+                devTools.send(new Command<>("Page.addScriptToEvaluateOnNewDocument", Map.of("source", INSTALL_SCRIPT)));
+            } catch (Exception e) {
+                System.out.println("Toast capture on new documents is not available: " + e.getMessage());
+            }
+        }
+        return new ToastCapture(driver);
+    }
+
+    /**
+     * ToastCapture của session đang dùng {@code driver}, null nếu tắt hoặc driver không thuộc session nào
+     */
+    public static ToastCapture forDriver(WebDriver driver) {
+        if (!ENABLED) {
+            return null;
+        }
+        DriverSession session = DriverManager.getSession();
+        return session != null && session.getDriver() == driver ? session.getToastCapture() : null;
+    }
+
+    /**
+     * Mọi toast đã ghi lại trên document hiện tại, theo thứ tự xuất hiện (một lần executeScript, không chờ)
+     */
+    public List<Toast> read() {
+        List<Toast> toasts = new ArrayList<>();
+        Object buffer = ((JavascriptExecutor) driver).executeScript(READ_SCRIPT);
+        if (buffer instanceof List) {
+            for (Object entry : (List<?>) buffer) {
+                toasts.add(Toast.from(entry));
+            }
+        }
+        return toasts;
+    }
+
+    /**
+     * Xoá buffer, gọi trước thao tác để chỉ thấy toast do thao tác đó gây ra
+     */
+    public void clear() {
+        ((JavascriptExecutor) driver).executeScript(CLEAR_SCRIPT);
+    }
+
+    /**
+     * Toast đầu tiên trong buffer; nếu chưa có thì chờ toast tiếp theo tối đa {@code timeout}
+     *
+     * @return null nếu không có toast nào trong thời gian chờ
+     */
+    public Toast await(Duration timeout) {
+        return await(null, timeout);
+    }
+
+    /**
+     * Toast đầu tiên trong buffer khớp {@code locator} (null = mọi toast); nếu chưa có thì chờ tối đa {@code timeout}
+     *
+     * @return null nếu không có toast khớp trong thời gian chờ
+     * @throws IllegalArgumentException nếu locator không so được trong browser (xem canMatch)
+     */
+    public Toast await(By locator, Duration timeout) {
+        if (locator != null && !canMatch(locator)) {
+            throw new IllegalArgumentException("Toast capture cannot match " + locator + " in the browser");
+        }
+        List<List<Object>> candidates = locator == null ? null : locator instanceof FallbackLocator
+                ? FallbackLocator.toScriptCandidates(((FallbackLocator) locator).getCandidates())
+                : FallbackLocator.toScriptCandidates(List.of(locator));
+        return TestDeadline.spend("toast", timeout, budget -> {
+            long max = Math.min(budget.toMillis(), AWAIT_MAX_MILLIS);
+            Object entry = ((JavascriptExecutor) driver).executeAsyncScript(AWAIT_SCRIPT, max, candidates);
+            return entry == null ? null : Toast.from(entry);
+        });
+    }
+
+    /**
+     * Locator chuẩn (css, xpath...) hoặc FallbackLocator: so được với toast trong buffer
+     */
+    public static boolean canMatch(By locator) {
+        return locator instanceof FallbackLocator || locator instanceof By.Remotable;
+    }
+
+    /**
+     * Điều kiện cho OutcomeRace: đã có toast trong buffer
+     */
+    public ExpectedCondition<Toast> captured() {
+        return webDriver -> {
+            List<Toast> toasts = read();
+            return toasts.isEmpty() ? null : toasts.get(0);
+        };
+    }
+
+    /**
+     * Một toast đã ghi lại: text, class của node và thời điểm xuất hiện (ms, đồng hồ của browser)
+     */
+    public static class Toast {
+        private final String text;
+        private final String source;
+        private final long time;
+
+        Toast(String text, String source, long time) {
+            this.text = text;
+            this.source = source;
+            this.time = time;
+        }
+
+        static Toast from(Object entry) {
+            Map<?, ?> map = (Map<?, ?>) entry;
+            Object time = map.get("time");
+            return new Toast(String.valueOf(map.get("text")), String.valueOf(map.get("source")),
+                    time instanceof Number ? ((Number) time).longValue() : 0);
+        }
+
+        public String getText() {
+            return text;
+        }
+
+        public String getSource() {
+            return source;
+        }
+
+        public long getTime() {
+            return time;
+        }
+
+        @Override
+        public String toString() {
+            return "\"" + text + "\" (" + source + ")";
+        }
+    }
+}
@@ -0,0 +1,565 @@
+package com.happyorder.base;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.ScriptTimeoutException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Chờ theo điều kiện thay cho Thread.sleep cố định: document ready, DOM ổn định,
+ * SPA đổi route, trạng thái element
+ *
+ * Mọi điều kiện được poll mỗi -Dwait.poll ms (mặc định 100) và trả về ngay khi trang
+ * sẵn sàng, timeout chỉ là giới hạn trên.
+ * Các check có/không có element (isPresent, isDisplayed, isAbsent, staysAbsent) bỏ qua
+ * implicit wait và chỉ poll trong -Dwait.checkWindow ms.
+ * Trạng thái element được chờ ngay trong trang bằng MutationObserver (-Dwait.backend=observer):
+ * một round trip thay vì một request tới chromedriver cho mỗi lần poll.
+ * Timeout của documentReady và trạng thái element được rút ngắn theo lịch sử (AdaptiveTimeouts).
+ * Mọi lần chờ đều bị giới hạn bởi ngân sách còn lại của test (TestDeadline).
+ */
+public class WaitEngine {
+
+    /** Timeout mặc định (giây) của mọi lần chờ, dùng chung cho BasePages, WebElementUtils và page object */
+    public static final int DEFAULT_TIMEOUT = Integer.getInteger("wait.timeout", 10);
+    public static final long POLL_MILLIS = Long.getLong("wait.poll", 100);
+    /** DOM không đổi trong khoảng này (ms) thì coi là đã ổn định */
+    public static final long SETTLE_QUIET_MILLIS = Long.getLong("wait.settleQuiet", 300);
+    /** Cửa sổ poll mặc định (ms) của các check có/không có element */
+    public static final long CHECK_WINDOW_MILLIS = Long.getLong("wait.checkWindow", 1500);
+    /** Backend chờ trạng thái element: "observer" (trong trang, mặc định) hoặc "polling" */
+    public static final String BACKEND = System.getProperty("wait.backend", "observer");
+    /** Giới hạn của domSettled, nhỏ hơn script timeout mặc định (30 s) của WebDriver */
+    private static final long SETTLE_MAX_MILLIS = 20_000;
+    private static final long OBSERVER_MAX_MILLIS = 25_000;
+    private static final boolean OBSERVER_BACKEND = "observer".equalsIgnoreCase(BACKEND);
+    private static final Object NOT_OBSERVED = new Object();
+
+    private static final String DOM_SETTLED_SCRIPT =
+            "var quiet = arguments[0], max = arguments[1], done = arguments[arguments.length - 1];"
+                    + "var start = Date.now(), last = start;"
+                    + "var observer = new MutationObserver(function () { last = Date.now(); });"
+                    + "observer.observe(document, { childList: true, subtree: true, characterData: true,"
+                    + "  attributes: true, attributeFilter: ['class', 'hidden', 'disabled', 'aria-busy'] });"
+                    + "(function check() {"
+                    + "  var now = Date.now();"
+                    + "  if (now - last >= quiet) { observer.disconnect(); done(true); }"
+                    + "  else if (now - start >= max) { observer.disconnect(); done(false); }"
+                    + "  else { setTimeout(check, Math.min(50, quiet)); }"
+                    + "})();";
+
+    /**
+     * Hàm JS find(candidate, root): tìm element theo locator của WebDriver ở dạng [using, value]
+     * (css selector, xpath, link text, partial link text, tag name), dùng chung với FallbackLocator
+     */
+    static final String FIND_FUNCTION =
+            "function all(list) { return Array.prototype.slice.call(list); }"
+                    + "function find(candidate, root) {"
+                    + "  var using = candidate[0], value = candidate[1];"
+                    + "  if (using === 'css selector') { return all(root.querySelectorAll(value)); }"
+                    + "  if (using === 'tag name') { return all(root.getElementsByTagName(value)); }"
+                    + "  if (using === 'xpath') {"
+                    + "    var r = document.evaluate(value, root, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null), a = [];"
+                    + "    for (var i = 0; i < r.snapshotLength; i++) { if (r.snapshotItem(i).nodeType === 1) { a.push(r.snapshotItem(i)); } }"
+                    + "    return a;"
+                    + "  }"
+                    + "  if (using === 'link text' || using === 'partial link text') {"
+                    + "    return all(root.getElementsByTagName('a')).filter(function (a) {"
+                    + "      var t = (a.innerText || '').trim();"
+                    + "      return using === 'link text' ? t === value : t.indexOf(value) >= 0;"
+                    + "    });"
+                    + "  }"
+                    + "  throw new Error('Unsupported locator: ' + using);"
+                    + "}";
+
+    /** JS {@code shown(element)}: element đang hiển thị (gần với isDisplayed của WebDriver) */
+    static final String SHOWN_FUNCTION =
+            "function shown(e) {"
+                    + "  if (!e.isConnected) { return false; }"
+                    + "  if (e.checkVisibility && !e.checkVisibility({ opacityProperty: true, visibilityProperty: true })) { return false; }"
+                    + "  var s = window.getComputedStyle(e);"
+                    + "  if (s.display === 'none' || s.visibility === 'hidden') { return false; }"
+                    + "  var rect = e.getBoundingClientRect();"
+                    + "  return rect.width > 0 && rect.height > 0;"
+                    + "}";
+
+    /**
+     * Chờ trạng thái present, visible, clickable (visible và không disabled) hoặc hidden của
+     * danh sách locator ứng viên (theo thứ tự ưu tiên). Trả về [element, index ứng viên khớp],
+     * hoặc true với "hidden". Kiểm tra lại mỗi khi DOM đổi và mỗi 100 ms (CSS transition
+     * không sinh mutation).
+     */
+    private static final String OBSERVE_SCRIPT =
+            "var candidates = arguments[0], state = arguments[1], max = arguments[2];"
+                    + "var done = arguments[arguments.length - 1];"
+                    + FIND_FUNCTION
+                    + SHOWN_FUNCTION
+                    + "function check() {"
+                    + "  for (var c = 0; c < candidates.length; c++) {"
+                    + "    var elements = find(candidates[c], document);"
+                    + "    for (var i = 0; i < elements.length; i++) {"
+                    + "      var e = elements[i];"
+                    + "      if (state === 'hidden') { if (shown(e)) { return null; } }"
+                    + "      else if (state === 'present' || (shown(e) && (state === 'visible' || !e.disabled))) { return [e, c]; }"
+                    + "    }"
+                    + "  }"
+                    + "  return state === 'hidden' ? true : null;"
+                    + "}"
+                    + "var first = check();"
+                    + "if (first) { done(first); return; }"
+                    + "var finished = false, observer, timer, deadline;"
+                    + "function finish(result) {"
+                    + "  if (finished) { return; }"
+                    + "  finished = true; observer.disconnect(); clearInterval(timer); clearTimeout(deadline);"
+                    + "  done(result);"
+                    + "}"
+                    + "function tick() { try { var r = check(); if (r) { finish(r); } } catch (err) { finish(null); } }"
+                    + "observer = new MutationObserver(tick);"
+                    + "observer.observe(document, { childList: true, subtree: true, attributes: true, characterData: true });"
+                    + "timer = setInterval(tick, 100);"
+                    + "deadline = setTimeout(function () { finish(null); }, max);";
+
+    private final WebDriver driver;
+
+    public WaitEngine(WebDriver driver) {
+        this.driver = driver;
+    }
+
+    /**
+     * WaitEngine cho WebDriver của thread hiện tại
+     */
+    public static WaitEngine current() {
+        return new WaitEngine(DriverManager.getDriver());
+    }
+
+    // ==================== PAGE ====================
+
+    /**
+     * Chờ document.readyState == "complete"
+     */
+    public void documentReady() {
+        documentReady(Duration.ofSeconds(DEFAULT_TIMEOUT));
+    }
+
+    public void documentReady(Duration timeout) {
+        adaptive("documentReady", timeout, effective -> until(webDriver ->
+                "complete".equals(((JavascriptExecutor) webDriver).executeScript("return document.readyState")), effective));
+    }
+
+    /**
+     * Chờ DOM ngừng thay đổi trong SETTLE_QUIET_MILLIS (framework JS render xong)
+     *
+     * @return false nếu DOM vẫn thay đổi khi hết timeout (ví dụ trang có animation liên tục)
+     */
+    public boolean domSettled() {
+        return domSettled(Duration.ofSeconds(DEFAULT_TIMEOUT));
+    }
+
+    public boolean domSettled(Duration timeout) {
+        return TestDeadline.spend("domSettled", timeout, budget -> {
+            long max = Math.min(budget.toMillis(), SETTLE_MAX_MILLIS);
+            Object settled = ((JavascriptExecutor) driver).executeAsyncScript(DOM_SETTLED_SCRIPT, SETTLE_QUIET_MILLIS, max);
+            return Boolean.TRUE.equals(settled);
+        });
+    }
+
+    /**
+     * Trang đã load xong và đã render xong: documentReady rồi domSettled
+     */
+    public void pageReady() {
+        pageReady(Duration.ofSeconds(DEFAULT_TIMEOUT));
+    }
+
+    public void pageReady(Duration timeout) {
+        TestDeadline.spend("pageReady", timeout, budget -> {
+            long start = System.nanoTime();
+            documentReady(budget);
+            Duration left = budget.minusNanos(System.nanoTime() - start);
+            return !left.isNegative() && !left.isZero() && domSettled(left);
+        });
+    }
+
+    // ==================== ROUTE ====================
+
+    /**
+     * Chờ URL đổi khác {@code fromUrl} (SPA đổi route bằng pushState cũng được tính)
+     *
+     * @return URL mới
+     */
+    public String routeChange(String fromUrl) {
+        return routeChange(fromUrl, Duration.ofSeconds(DEFAULT_TIMEOUT));
+    }
+
+    public String routeChange(String fromUrl, Duration timeout) {
+        return until(webDriver -> {
+            String url = webDriver.getCurrentUrl();
+            return url.equals(fromUrl) ? null : url;
+        }, timeout);
+    }
+
+    /**
+     * Chờ URL chứa {@code fragment}
+     */
+    public void routeContains(String fragment, Duration timeout) {
+        until(ExpectedConditions.urlContains(fragment), timeout);
+    }
+
+    /**
+     * Chờ URL không còn chứa {@code fragment} (ví dụ rời trang login)
+     *
+     * @return false nếu hết timeout mà URL vẫn chứa fragment
+     */
+    public boolean routeLeaves(String fragment, Duration timeout) {
+        try {
+            until(ExpectedConditions.not(ExpectedConditions.urlContains(fragment)), timeout);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        }
+    }
+
+    // ==================== NETWORK ====================
+
+    /**
+     * Thực hiện {@code action} (click submit...) rồi chờ mọi request XHR/fetch nó gây ra kết thúc
+     * Browser không có CDP thì chờ DOM ổn định thay thế
+     *
+     * @return false nếu hết timeout mà network chưa idle
+     */
+    public boolean networkIdleAfter(Runnable action) {
+        return networkIdleAfter(action, Duration.ofSeconds(DEFAULT_TIMEOUT));
+    }
+
+    public boolean networkIdleAfter(Runnable action, Duration timeout) {
+        // Bật monitor trước thao tác để không lỡ request bắn ra ngay khi click
+        NetworkMonitor monitor = networkMonitor();
+        if (monitor != null) {
+            monitor.markActivity();
+        }
+        action.run();
+        return TestDeadline.spend("networkIdle", timeout,
+                budget -> monitor != null ? monitor.waitForIdle(budget) : domSettled(budget));
+    }
+
+    /**
+     * Chờ network idle (chỉ thấy các request bắt đầu sau khi session bật theo dõi network)
+     */
+    public boolean networkIdle(Duration timeout) {
+        NetworkMonitor monitor = networkMonitor();
+        return TestDeadline.spend("networkIdle", timeout,
+                budget -> monitor != null ? monitor.waitForIdle(budget) : domSettled(budget));
+    }
+
+    private NetworkMonitor networkMonitor() {
+        DriverSession session = DriverManager.getSession();
+        return session != null && session.getDriver() == driver ? session.getNetworkMonitor() : null;
+    }
+
+    // ==================== ELEMENT STATE ====================
+    // Backend "observer": một lần executeAsyncScript, MutationObserver trong trang trả kết quả
+    // ngay khi điều kiện đúng (FallbackLocator: mọi ứng viên trong cùng một lần chờ).
+    // Locator không chuyển được sang JS (ByChained, ByAll...) hoặc
+    // trang reload giữa chừng thì quay về WebDriverWait polling cho thời gian còn lại.
+
+    public WebElement visible(By locator) {
+        return visible(locator, Duration.ofSeconds(DEFAULT_TIMEOUT));
+    }
+
+    public WebElement visible(By locator, Duration timeout) {
+        return (WebElement) elementState(locator, "visible", timeout,
+                ExpectedConditions.visibilityOfElementLocated(locator));
+    }
+
+    public WebElement clickable(By locator) {
+        return clickable(locator, Duration.ofSeconds(DEFAULT_TIMEOUT));
+    }
+
+    public WebElement clickable(By locator, Duration timeout) {
+        return (WebElement) elementState(locator, "clickable", timeout,
+                ExpectedConditions.elementToBeClickable(locator));
+    }
+
+    /**
+     * Chờ element ẩn đi hoặc bị xoá khỏi DOM (spinner, overlay)
+     */
+    public void hidden(By locator, Duration timeout) {
+        elementState(locator, "hidden", timeout, ExpectedConditions.invisibilityOfElementLocated(locator));
+    }
+
+    /**
+     * Chờ element có text chứa {@code text}
+     */
+    public void text(By locator, String text, Duration timeout) {
+        until(ExpectedConditions.textToBePresentInElementLocated(locator, text), timeout);
+    }
+
+    // ==================== PRESENCE / ABSENCE ====================
+    // Tạm tắt implicit wait và poll findElements, nên check âm tính (element không có)
+    // chỉ tốn CHECK_WINDOW_MILLIS thay vì cả implicit wait cho mỗi lần findElement
+
+    /**
+     * Có element khớp locator trong DOM (trả về ngay khi tìm thấy)
+     */
+    public boolean isPresent(By locator) {
+        return isPresent(locator, Duration.ofMillis(CHECK_WINDOW_MILLIS));
+    }
+
+    public boolean isPresent(By locator, Duration window) {
+        return TestDeadline.spend("isPresent " + locator, window, budget -> {
+            Object observed = observe(locator, "present", budget);
+            if (observed != NOT_OBSERVED) {
+                return observed != null;
+            }
+            return poll(budget, () -> !driver.findElements(locator).isEmpty());
+        });
+    }
+
+    /**
+     * Có element khớp locator đang hiển thị (trả về ngay khi thấy)
+     */
+    public boolean isDisplayed(By locator) {
+        return isDisplayed(locator, Duration.ofMillis(CHECK_WINDOW_MILLIS));
+    }
+
+    public boolean isDisplayed(By locator, Duration window) {
+        return TestDeadline.spend("isDisplayed " + locator, window, budget -> {
+            Object observed = observe(locator, "visible", budget);
+            if (observed != NOT_OBSERVED) {
+                return observed != null;
+            }
+            return poll(budget, () -> anyDisplayed(driver.findElements(locator)));
+        });
+    }
+
+    /**
+     * Element (ví dụ proxy của @FindBy) đang hiển thị
+     */
+    public boolean isDisplayed(WebElement element) {
+        return isDisplayed(element, Duration.ofMillis(CHECK_WINDOW_MILLIS));
+    }
+
+    public boolean isDisplayed(WebElement element, Duration window) {
+        return TestDeadline.spend("isDisplayed " + element, window, budget -> poll(budget, () -> {
+            try {
+                return element.isDisplayed();
+            } catch (NoSuchElementException | StaleElementReferenceException e) {
+                return false;
+            }
+        }));
+    }
+
+    /**
+     * Element biến mất (không còn hoặc bị ẩn) trong cửa sổ chờ, trả về ngay khi biến mất
+     */
+    public boolean isAbsent(By locator) {
+        return isAbsent(locator, Duration.ofMillis(CHECK_WINDOW_MILLIS));
+    }
+
+    public boolean isAbsent(By locator, Duration window) {
+        return TestDeadline.spend("isAbsent " + locator, window, budget -> {
+            Object observed = observe(locator, "hidden", budget);
+            if (observed != NOT_OBSERVED) {
+                return observed != null;
+            }
+            return poll(budget, () -> !anyDisplayed(driver.findElements(locator)));
+        });
+    }
+
+    /**
+     * Element không xuất hiện suốt cửa sổ chờ (ví dụ "không có toast lỗi")
+     */
+    public boolean staysAbsent(By locator) {
+        return staysAbsent(locator, Duration.ofMillis(CHECK_WINDOW_MILLIS));
+    }
+
+    public boolean staysAbsent(By locator, Duration window) {
+        return !isDisplayed(locator, window);
+    }
+
+    // ==================== OBSERVER BACKEND ====================
+
+    /**
+     * Chờ trạng thái element với timeout lấy từ lịch sử (AdaptiveTimeouts)
+     */
+    private Object elementState(By locator, String state, Duration timeout, ExpectedCondition<?> fallback) {
+        return adaptive(state + " " + locator, timeout, effective -> waitForState(locator, state, effective, fallback));
+    }
+
+    /**
+     * Chạy một lần chờ với timeout từ AdaptiveTimeouts và ghi lại thời gian chờ thực tế
+     *
+     * Hết timeout adaptive là fail (và được ghi là một lần timeout), element không có thì test
+     * không phải chờ hết timeout cấu hình. -Dwait.adaptive.grace ms (mặc định 0) cho phép chờ thêm
+     * một khoảng nhỏ trước khi fail, khi lịch sử có thể đã lỗi thời (backend chậm đi).
+     */
+    private <T> T adaptive(String condition, Duration timeout, Function<Duration, T> wait) {
+        String key = AdaptiveTimeouts.key(pageUrl(), condition);
+        return TestDeadline.spend(key, timeout, configured -> adaptiveWait(key, configured, wait));
+    }
+
+    private <T> T adaptiveWait(String key, Duration configured, Function<Duration, T> wait) {
+        Duration effective = AdaptiveTimeouts.timeoutFor(key, configured);
+        long start = System.nanoTime();
+        try {
+            T result;
+            try {
+                result = wait.apply(effective);
+            } catch (TimeoutException e) {
+                Duration grace = AdaptiveTimeouts.graceFor(effective, configured);
+                if (grace.isZero()) {
+                    throw effective.equals(configured) ? e : new TimeoutException("Timed out after adaptive timeout "
+                            + effective.toMillis() + " ms (" + AdaptiveTimeouts.describe(key) + "): " + key, e);
+                }
+                System.out.println("Slow wait: " + key + " exceeded adaptive timeout " + effective.toMillis()
+                        + " ms (" + AdaptiveTimeouts.describe(key) + "), grace " + grace.toMillis() + " ms");
+                result = wait.apply(grace);
+            }
+            AdaptiveTimeouts.recordSuccess(key, Duration.ofNanos(System.nanoTime() - start).toMillis());
+            return result;
+        } catch (TimeoutException e) {
+            AdaptiveTimeouts.recordTimeout(key);
+            throw e;
+        }
+    }
+
+    /**
+     * URL trang hiện tại cho key của AdaptiveTimeouts, lấy từ NavigationEpoch của session
+     * (URL cuối cùng driver mở hoặc đọc được) nên không tốn thêm round trip
+     */
+    private String pageUrl() {
+        DriverSession session = DriverManager.getSession();
+        return session != null && session.getDriver() == driver ? session.getNavigationEpoch().lastUrl() : "";
+    }
+
+    /**
+     * Chờ trạng thái element bằng observer, hết thời gian thì TimeoutException như WebDriverWait
+     */
+    private Object waitForState(By locator, String state, Duration timeout, ExpectedCondition<?> fallback) {
+        long start = System.nanoTime();
+        Object observed = observe(locator, state, timeout);
+        if (observed == null) {
+            throw new TimeoutException("Expected condition failed: waiting for " + state + " of element located by "
+                    + locator + " (tried for " + timeout.toMillis() + " ms in browser)");
+        }
+        if (observed != NOT_OBSERVED) {
+            return observed;
+        }
+        Duration left = timeout.minusNanos(System.nanoTime() - start);
+        return until(fallback, left.isNegative() ? Duration.ZERO : left);
+    }
+
+    /**
+     * Chạy OBSERVE_SCRIPT: element (hoặc true với "hidden") khi điều kiện đúng, null khi hết
+     * thời gian, NOT_OBSERVED khi không dùng được observer
+     */
+    private Object observe(By locator, String state, Duration timeout) {
+        LocatorProfiler.record(driver, locator);
+        if (!OBSERVER_BACKEND) {
+            return NOT_OBSERVED;
+        }
+        List<By> ordered = null;
+        List<List<Object>> candidates;
+        if (locator instanceof FallbackLocator) {
+            ordered = ((FallbackLocator) locator).getCandidates();
+            candidates = FallbackLocator.toScriptCandidates(ordered);
+        } else if (locator instanceof By.Remotable) {
+            By.Remotable.Parameters parameters = ((By.Remotable) locator).getRemoteParameters();
+            candidates = List.of(List.of(parameters.using(), parameters.value()));
+        } else {
+            return NOT_OBSERVED;
+        }
+
+        long max = Math.min(timeout.toMillis(), OBSERVER_MAX_MILLIS);
+        try {
+            Object result = ((JavascriptExecutor) driver).executeAsyncScript(OBSERVE_SCRIPT, candidates, state, max);
+            if (result == null && max < timeout.toMillis()) {
+                // Timeout dài hơn script timeout: phần còn lại dùng polling
+                return NOT_OBSERVED;
+            }
+            if (result instanceof List) {
+                List<?> match = (List<?>) result;
+                if (ordered != null) {
+                    ((FallbackLocator) locator).recordMatch(ordered.get(((Number) match.get(1)).intValue()));
+                }
+                return match.get(0);
+            }
+            return result;
+        } catch (JavascriptException | ScriptTimeoutException e) {
+            // Trang chuyển đi giữa chừng ("document unloaded") hoặc selector lỗi: để polling xử lý
+            return NOT_OBSERVED;
+        }
+    }
+
+    /**
+     * Chạy {@code action} với implicit wait = 0 rồi trả lại giá trị cũ
+     */
+    public <T> T withoutImplicitWait(Supplier<T> action) {
+        WebDriver.Timeouts timeouts = driver.manage().timeouts();
+        Duration previous = timeouts.getImplicitWaitTimeout();
+        if (previous.isZero()) {
+            return action.get();
+        }
+        timeouts.implicitlyWait(Duration.ZERO);
+        try {
+            return action.get();
+        } finally {
+            timeouts.implicitlyWait(previous);
+        }
+    }
+
+    private boolean poll(Duration window, BooleanSupplier check) {
+        return withoutImplicitWait(() -> ReadCache.uncached(() -> {
+            long deadline = System.nanoTime() + window.toNanos();
+            while (true) {
+                if (check.getAsBoolean()) {
+                    return true;
+                }
+                if (System.nanoTime() >= deadline) {
+                    return false;
+                }
+                try {
+                    Thread.sleep(POLL_MILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }));
+    }
+
+    private static boolean anyDisplayed(List<WebElement> elements) {
+        for (WebElement element : elements) {
+            try {
+                if (element.isDisplayed()) {
+                    return true;
+                }
+            } catch (StaleElementReferenceException e) {
+                // Element bị render lại giữa findElements và isDisplayed, poll lần sau
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Chờ điều kiện bất kỳ với polling của WaitEngine
+     */
+    public <T> T until(ExpectedCondition<T> condition, Duration timeout) {
+        return TestDeadline.spend("until " + condition, timeout,
+                budget -> ReadCache.uncached(() -> new WebDriverWait(driver, budget, Duration.ofMillis(POLL_MILLIS))
+                        .until(condition)));
+    }
+}
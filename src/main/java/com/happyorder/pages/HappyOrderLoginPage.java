@@ -1,55 +1,53 @@
 package com.happyorder.pages;
 
+import com.happyorder.base.FallbackLocator;
+import com.happyorder.base.OutcomeRace;
+import com.happyorder.base.WaitEngine;
 import com.happyorder.utils.WebElementUtils;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
 
 import java.time.Duration;
 
 public class HappyOrderLoginPage {
     private WebDriver driver;
     private WebElementUtils elementUtils;
-    private WebDriverWait wait;
+    private WaitEngine waits;
 
     // URL
     private final String LOGIN_URL = "https://happyorder.vn/client-area/auth/login";
 
     // Locators - Dựa trên cấu trúc thực tế của trang HappyOrder
-    private By usernameField = By.cssSelector("input[type='text'], input[type='email']");
-    private By passwordField = By.cssSelector("input[type='password']");
-    private By loginButton = By.cssSelector("button.btn-danger.btn-auth, button.btn.btn-danger, .btn-auth");
-
-    // Alternative locators nếu cần
-    private By usernameFieldAlt = By.xpath("//input[@type='text' or @type='email']");
-    private By passwordFieldAlt = By.xpath("//input[@type='password']");
-    private By loginButtonAlt = By.xpath("//button[contains(@class, 'btn-danger') and contains(@class, 'btn-auth')]");
+    // Locator chính và locator thay thế được thử cùng lúc (xem FallbackLocator)
+    private By usernameField = FallbackLocator.of("HappyOrderLoginPage.username",
+            By.cssSelector("input[type='text'], input[type='email']"),
+            By.xpath("//input[@type='text' or @type='email']"));
+    private By passwordField = FallbackLocator.of("HappyOrderLoginPage.password",
+            By.cssSelector("input[type='password']"),
+            By.xpath("//input[@type='password']"));
+    private By loginButton = FallbackLocator.of("HappyOrderLoginPage.loginButton",
+            By.cssSelector("button.btn-danger.btn-auth, button.btn.btn-danger, .btn-auth"),
+            By.xpath("//button[contains(@class, 'btn-danger') and contains(@class, 'btn-auth')]"));
 
     // Success/Error message locators - Updated for HappyOrder
     private By errorMessage = By.xpath("//*[contains(text(), 'Thông báo') or contains(text(), 'không chính xác') or contains(@class, 'error') or contains(@class, 'alert') or contains(@class, 'message')]");
     private By errorMessageAlt = By.cssSelector(".alert, .error, .notification, [role='alert'], .message");
     private By successMessage = By.xpath("//*[contains(@class, 'success') or contains(@class, 'alert-success')]");
+    // Chỉ thông báo sai tài khoản/mật khẩu: banner hay notification có sẵn trên trang không được tính là login lỗi
+    private By loginErrorMessage = By.xpath("//*[contains(text(), 'không chính xác')]");
 
     public HappyOrderLoginPage(WebDriver driver) {
         this.driver = driver;
         this.elementUtils = new WebElementUtils(driver);
-        this.wait = new WebDriverWait(driver, Duration.ofSeconds(20));
+        this.waits = new WaitEngine(driver);
     }
 
     public void navigateToLoginPage() {
         driver.get(LOGIN_URL);
         System.out.println("Navigated to HappyOrder Login page: " + LOGIN_URL);
 
-        // Wait for page to load
-        elementUtils.waitForPageLoad();
-
-        // Đợi thêm để JavaScript load
-        try {
-            Thread.sleep(3000);
-        } catch (InterruptedException e) {
-            e.printStackTrace();
-        }
+        // Wait for page to load và JavaScript render xong form
+        waits.pageReady();
     }
 
     public void enterUsername(String username) {
@@ -58,15 +56,8 @@ public class HappyOrderLoginPage {
             elementUtils.sendKeys(usernameField, username);
             System.out.println("Entered username: " + username);
         } catch (Exception e) {
-            System.out.println("Trying alternative username field locator...");
-            try {
-                elementUtils.waitForElementVisible(usernameFieldAlt, 10);
-                elementUtils.sendKeys(usernameFieldAlt, username);
-                System.out.println("Entered username using alternative locator: " + username);
-            } catch (Exception ex) {
-                System.out.println("Error entering username: " + ex.getMessage());
-                throw ex;
-            }
+            System.out.println("Error entering username: " + e.getMessage());
+            throw e;
         }
     }
 
@@ -76,47 +67,31 @@ public class HappyOrderLoginPage {
             elementUtils.sendKeys(passwordField, password);
             System.out.println("Entered password: " + "****");
         } catch (Exception e) {
-            System.out.println("Trying alternative password field locator...");
-            try {
-                elementUtils.waitForElementVisible(passwordFieldAlt, 10);
-                elementUtils.sendKeys(passwordFieldAlt, password);
-                System.out.println("Entered password using alternative locator");
-            } catch (Exception ex) {
-                System.out.println("Error entering password: " + ex.getMessage());
-                throw ex;
-            }
+            System.out.println("Error entering password: " + e.getMessage());
+            throw e;
         }
     }
 
     public void clickLoginButton() {
+        // Chờ API login (XHR/fetch) trả về thay vì đoán thời gian
+        waits.networkIdleAfter(this::clickLoginButtonOnce);
+    }
+
+    private void clickLoginButtonOnce() {
         try {
             elementUtils.waitForElementClickable(loginButton, 15);
             elementUtils.clickElement(loginButton);
             System.out.println("Clicked login button");
         } catch (Exception e) {
-            System.out.println("Trying alternative login button locator...");
+            System.out.println("Trying JavaScript click...");
             try {
-                elementUtils.waitForElementClickable(loginButtonAlt, 10);
-                elementUtils.clickElement(loginButtonAlt);
-                System.out.println("Clicked login button using alternative locator");
+                elementUtils.clickByJavaScript(loginButton);
+                System.out.println("Clicked login button using JavaScript");
             } catch (Exception ex) {
-                System.out.println("Trying JavaScript click...");
-                try {
-                    elementUtils.clickByJavaScript(loginButton);
-                    System.out.println("Clicked login button using JavaScript");
-                } catch (Exception exc) {
-                    System.out.println("Error clicking login button: " + exc.getMessage());
-                    throw exc;
-                }
+                System.out.println("Error clicking login button: " + ex.getMessage());
+                throw ex;
             }
         }
-
-        // Wait a bit after clicking
-        try {
-            Thread.sleep(2000);
-        } catch (InterruptedException e) {
-            e.printStackTrace();
-        }
     }
 
     public void login(String username, String password) {
@@ -185,18 +160,21 @@ public class HappyOrderLoginPage {
     public boolean isLoginSuccessful() {
         // Kiểm tra nếu URL đã thay đổi sau khi login
         try {
-            Thread.sleep(3000); // Đợi redirect
-            String currentUrl = getCurrentUrl();
-            System.out.println("Current URL after login: " + currentUrl);
+            // Redirect hoặc thông báo sai tài khoản, cái nào tới trước (tối đa 5 giây)
+            OutcomeRace.Result outcome = new OutcomeRace(driver)
+                    .on("redirected", OutcomeRace.urlLeaves("/auth/login"))
+                    .on("error", OutcomeRace.visible(loginErrorMessage))
+                    .await(Duration.ofSeconds(5));
+            System.out.println("Current URL after login: " + getCurrentUrl());
 
             // Nếu không còn ở trang login thì coi như thành công
-            return !currentUrl.contains("/auth/login");
+            return outcome.is("redirected");
         } catch (Exception e) {
             return false;
         }
     }
 
     public void waitForPageLoad() {
-        elementUtils.waitForPageLoad();
+        waits.pageReady();
     }
 }
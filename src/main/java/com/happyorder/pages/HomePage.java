@@ -1,14 +1,19 @@
 package com.happyorder.pages;
 
+import com.happyorder.base.DriverManager;
+import com.happyorder.base.ElementCache;
+import com.happyorder.base.PageSnapshot;
+import com.happyorder.base.WaitEngine;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
 import org.openqa.selenium.support.PageFactory;
 import org.openqa.selenium.support.ui.ExpectedConditions;
-import org.openqa.selenium.support.ui.WebDriverWait;
 
 import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 /**
  * Page Object Model for Home Page
@@ -20,22 +25,45 @@ import java.time.Duration;
 public class HomePage {
 
     private WebDriver driver;
-    private WebDriverWait wait;
+    private WaitEngine waits;
+
+    public static final String HOME_URL = "https://happyorder.com/home"; // Update with actual URL
+
+    // ==================== SNAPSHOT NAMES ====================
+
+    public static final String PAGE_TITLE = "pageTitle";
+    public static final String USER_PROFILE = "userProfile";
+    public static final String MAIN_MENU = "mainMenu";
+    public static final String DASHBOARD = "dashboard";
+    public static final String WELCOME_MESSAGE = "welcomeMessage";
+    public static final String STATS_CARD = "statsCard";
+    public static final String MESSAGE_BOX = "messageBox";
+
+    private static final String PAGE_TITLE_CSS = "h1.page-title, h1.home-title, .header-title";
+    private static final String USER_PROFILE_CSS = ".user-profile, .user-info, #userProfile";
+    private static final String MAIN_MENU_CSS = ".nav-menu, #mainMenu, .main-navigation";
+    private static final String DASHBOARD_CSS = ".dashboard, #dashboard, .dashboard-container";
+    private static final String WELCOME_MESSAGE_CSS = ".welcome-message, .greeting, #welcomeMsg";
+    private static final String STATS_CARD_CSS = ".stats-card, .dashboard-stats, .summary-card";
+    private static final String MESSAGE_BOX_CSS = ".alert, .message, .notification, .toast";
+
+    /** How long the waits and isXxxDisplayed checks wait for an element (-Dwait.timeout) */
+    private static final Duration DISPLAY_TIMEOUT = Duration.ofSeconds(WaitEngine.DEFAULT_TIMEOUT);
 
     // ==================== PAGE ELEMENTS ====================
 
     // Header elements
-    @FindBy(css = "h1.page-title, h1.home-title, .header-title")
+    @FindBy(css = PAGE_TITLE_CSS)
     private WebElement pageTitle;
 
-    @FindBy(css = ".user-profile, .user-info, #userProfile")
+    @FindBy(css = USER_PROFILE_CSS)
     private WebElement userProfile;
 
     @FindBy(css = ".logout-button, #btnLogout, button[name='logout']")
     private WebElement logoutButton;
 
     // Navigation elements
-    @FindBy(css = ".nav-menu, #mainMenu, .main-navigation")
+    @FindBy(css = MAIN_MENU_CSS)
     private WebElement mainMenu;
 
     @FindBy(linkText = "Orders")
@@ -48,13 +76,13 @@ public class HomePage {
     private WebElement settingsLink;
 
     // Dashboard elements
-    @FindBy(css = ".dashboard, #dashboard, .dashboard-container")
+    @FindBy(css = DASHBOARD_CSS)
     private WebElement dashboardSection;
 
-    @FindBy(css = ".welcome-message, .greeting, #welcomeMsg")
+    @FindBy(css = WELCOME_MESSAGE_CSS)
     private WebElement welcomeMessage;
 
-    @FindBy(css = ".stats-card, .dashboard-stats, .summary-card")
+    @FindBy(css = STATS_CARD_CSS)
     private WebElement statsCard;
 
     // Search elements
@@ -65,15 +93,23 @@ public class HomePage {
     private WebElement searchButton;
 
     // Error/Success message
-    @FindBy(css = ".alert, .message, .notification, .toast")
+    @FindBy(css = MESSAGE_BOX_CSS)
     private WebElement messageBox;
 
     // ==================== CONSTRUCTOR ====================
 
     public HomePage(WebDriver driver) {
         this.driver = driver;
-        this.wait = new WebDriverWait(driver, Duration.ofSeconds(10));
-        PageFactory.initElements(driver, this);
+        this.waits = new WaitEngine(driver);
+        // @FindBy dùng handle đã cache cho tới khi trang điều hướng (ElementCache)
+        PageFactory.initElements(new ElementCache(driver).locatorFactory(), this);
+    }
+
+    /**
+     * Create home page bound to the current thread's driver
+     */
+    public HomePage() {
+        this(DriverManager.getDriver());
     }
 
     // ==================== NAVIGATION ACTIONS ====================
@@ -82,7 +118,7 @@ public class HomePage {
      * Navigate to home page
      */
     public void navigateToHomePage() {
-        driver.get("https://happyorder.com/home"); // Update with actual URL
+        driver.get(HOME_URL);
     }
 
     /**
@@ -147,74 +183,71 @@ public class HomePage {
      * Check if page title is displayed
      */
     public boolean isPageTitleDisplayed() {
-        try {
-            waitForElementVisible(pageTitle);
-            return pageTitle.isDisplayed();
-        } catch (Exception e) {
-            return false;
-        }
+        return isDisplayed(PAGE_TITLE_CSS);
     }
 
     /**
      * Check if main menu is displayed
      */
     public boolean isMainMenuDisplayed() {
-        try {
-            waitForElementVisible(mainMenu);
-            return mainMenu.isDisplayed();
-        } catch (Exception e) {
-            return false;
-        }
+        return isDisplayed(MAIN_MENU_CSS);
     }
 
     /**
      * Check if welcome message is displayed
      */
     public boolean isWelcomeMessageDisplayed() {
-        try {
-            waitForElementVisible(welcomeMessage);
-            return welcomeMessage.isDisplayed();
-        } catch (Exception e) {
-            return false;
-        }
+        return isDisplayed(WELCOME_MESSAGE_CSS);
     }
 
     /**
      * Check if user profile is displayed
      */
     public boolean isUserProfileDisplayed() {
-        try {
-            waitForElementVisible(userProfile);
-            return userProfile.isDisplayed();
-        } catch (Exception e) {
-            return false;
-        }
+        return isDisplayed(USER_PROFILE_CSS);
     }
 
     /**
-     * Check if dashboard is loaded
+     * Check if dashboard is loaded (dashboard, title and menu read in one snapshot)
      */
     public boolean isDashboardLoaded() {
-        try {
-            waitForElementVisible(dashboardSection);
-            return dashboardSection.isDisplayed() &&
-                   isPageTitleDisplayed() &&
-                   isMainMenuDisplayed();
-        } catch (Exception e) {
-            return false;
+        if (snapshot().allDisplayed(DASHBOARD, PAGE_TITLE, MAIN_MENU)) {
+            return true;
         }
+        // Dashboard may still be rendering: wait for it like the other display checks
+        return isDisplayed(DASHBOARD_CSS) &&
+               isPageTitleDisplayed() &&
+               isMainMenuDisplayed();
+    }
+
+    /**
+     * Wait up to DISPLAY_TIMEOUT for an element to be visible (implicit wait off, returns as soon as it shows)
+     */
+    private boolean isDisplayed(String cssSelector) {
+        return waits.isDisplayed(By.cssSelector(cssSelector), DISPLAY_TIMEOUT);
+    }
+
+    /**
+     * Presence, visibility and text of all home page elements in a single round trip
+     * Element names are the constants of this class (PAGE_TITLE, MAIN_MENU...)
+     */
+    public PageSnapshot snapshot() {
+        Map<String, By> locators = new LinkedHashMap<>();
+        locators.put(PAGE_TITLE, By.cssSelector(PAGE_TITLE_CSS));
+        locators.put(USER_PROFILE, By.cssSelector(USER_PROFILE_CSS));
+        locators.put(MAIN_MENU, By.cssSelector(MAIN_MENU_CSS));
+        locators.put(DASHBOARD, By.cssSelector(DASHBOARD_CSS));
+        locators.put(WELCOME_MESSAGE, By.cssSelector(WELCOME_MESSAGE_CSS));
+        locators.put(STATS_CARD, By.cssSelector(STATS_CARD_CSS));
+        locators.put(MESSAGE_BOX, By.cssSelector(MESSAGE_BOX_CSS));
+        return PageSnapshot.take(driver, locators);
     }
 
     /**
      * Check if specific element exists by CSS selector
      */
     public boolean isElementPresent(String cssSelector) {
-        try {
-            driver.findElement(By.cssSelector(cssSelector));
-            return true;
-        } catch (Exception e) {
-            return false;
-        }
+        return waits.isPresent(By.cssSelector(cssSelector));
     }
 
     // ==================== GETTER METHODS ====================
@@ -275,24 +308,20 @@ public class HomePage {
      * Wait for element to be visible
      */
     private void waitForElementVisible(WebElement element) {
-        wait.until(ExpectedConditions.visibilityOf(element));
+        waits.until(ExpectedConditions.visibilityOf(element), DISPLAY_TIMEOUT);
     }
 
     /**
      * Wait for element to be clickable
      */
     private void waitForElementClickable(WebElement element) {
-        wait.until(ExpectedConditions.elementToBeClickable(element));
+        waits.until(ExpectedConditions.elementToBeClickable(element), DISPLAY_TIMEOUT);
     }
 
     /**
      * Wait for page to load
      */
     public void waitForPageLoad() {
-        try {
-            Thread.sleep(2000);
-        } catch (InterruptedException e) {
-            e.printStackTrace();
-        }
+        waits.pageReady();
     }
 }
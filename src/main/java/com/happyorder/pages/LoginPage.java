@@ -4,16 +4,32 @@ import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 
 import com.happyorder.base.BasePages;
+import com.happyorder.base.OutcomeRace;
+import com.happyorder.base.ToastCapture;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 public class LoginPage extends BasePages{
-  public LoginPage(WebDriver driver) {
-		super(driver);
-	}
+    public LoginPage(WebDriver driver) {
+        super(driver);
+    }
+
+    public LoginPage() {
+        super();
+    }
 
     //Lay Xpath 
     public By txtTenDangNhap = By.xpath("//input[@name='username']");
     public By txtMatKhau = By.xpath("//input[@name='password']");
     public By btnDangNhap = By.xpath("//span[@class='w-100']");
+    public By toastThongBao = By.xpath("//div[@class='ant-message']");
+
+    //Kết quả sau khi bấm đăng nhập (xem waitForLoginOutcome)
+    public static final String OUTCOME_REDIRECTED = "redirected";
+    public static final String OUTCOME_TOAST = "toast";
+    public static final String OUTCOME_VALIDATION = "validation";
     
 
     //Nhap du lieu
@@ -34,6 +50,16 @@ public class LoginPage extends BasePages{
     }
 
     public void clickbtnDangNhap() {
+        // Chỉ giữ toast do lần đăng nhập này gây ra (xem ToastCapture)
+        ToastCapture capture = ToastCapture.forDriver(driver);
+        if (capture != null) {
+            capture.clear();
+        }
+        // Chờ request đăng nhập (XHR/fetch) kết thúc
+        waits.networkIdleAfter(this::submitDangNhap);
+    }
+
+    private void submitDangNhap() {
         try {
             System.out.println("Trying to find submit button...");
             click(btnDangNhap);
@@ -48,6 +74,14 @@ public class LoginPage extends BasePages{
 
     //Dóng gói toàn bộ quy trình đăng nhập vào một thao tác duy nhất
 	public void login(String user, String password) throws InterruptedException{
+		if (FAST_FILL) {
+			// Một lần gọi JS cho cả hai field (-Dform.fastFill=true), dùng cho ma trận dữ liệu sai lớn
+			Map<By, String> values = new LinkedHashMap<>();
+			values.put(txtTenDangNhap, user);
+			values.put(txtMatKhau, password);
+			fillForm(values);
+			return;
+		}
 		if (user != null) {
 	        inputTenDangNhap(user);
 	    }
@@ -56,9 +90,36 @@ public class LoginPage extends BasePages{
 	    }
 	}
 
+    //Gõ user, password và bấm đăng nhập trong một chuỗi Actions (null thì bỏ qua field đó)
+    //-Dform.fastFill=true: điền bằng một lần gọi JS rồi bấm đăng nhập như cũ
+	public void loginAndSubmit(String user, String password) throws InterruptedException {
+		if (FAST_FILL) {
+			login(user, password);
+			clickbtnDangNhap();
+			return;
+		}
+		Map<By, String> values = new LinkedHashMap<>();
+		values.put(txtTenDangNhap, user);
+		values.put(txtMatKhau, password);
+		ToastCapture capture = ToastCapture.forDriver(driver);
+		if (capture != null) {
+			capture.clear();
+		}
+		waits.networkIdleAfter(() -> typeAndSubmit(values, btnDangNhap));
+	}
+
     //TC: ❌ Nhập sai user/password
 	public String getThongBaoSaiData() {
-		By toastLocator = By.xpath("//div[@class='ant-message']");
-		return getToastMessageText(toastLocator, 5);
+		return getToastMessageText(toastThongBao, 5);
+	}
+
+    //Chờ kết quả đăng nhập: rời trang login, toast thông báo, hoặc viền đỏ validation
+	public OutcomeRace.Result waitForLoginOutcome() {
+		ToastCapture capture = ToastCapture.forDriver(driver);
+		return new OutcomeRace(driver)
+				.on(OUTCOME_REDIRECTED, OutcomeRace.urlLeaves("/auth/login"))
+				.on(OUTCOME_TOAST, capture != null ? capture.captured() : OutcomeRace.visible(toastThongBao))
+				.on(OUTCOME_VALIDATION, OutcomeRace.redBorder(txtTenDangNhap, txtMatKhau))
+				.await(Duration.ofSeconds(10));
 	}
 }
\ No newline at end of file
@@ -0,0 +1,116 @@
+package com.happyorder.utils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Tìm process của browser và đo tài nguyên (RSS) của cả cây process
+ */
+public class ProcessUtils {
+
+    private ProcessUtils() {
+    }
+
+    /**
+     * Các process có command line chứa {@code marker}
+     */
+    public static List<ProcessHandle> findByArgument(String marker) {
+        return ProcessHandle.allProcesses()
+                .filter(process -> process.info().commandLine().map(cmd -> cmd.contains(marker)).orElse(false))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Các process gốc cùng toàn bộ process con (không trùng lặp)
+     */
+    public static List<ProcessHandle> withDescendants(List<ProcessHandle> roots) {
+        Map<Long, ProcessHandle> all = new LinkedHashMap<>();
+        for (ProcessHandle root : roots) {
+            all.put(root.pid(), root);
+            root.descendants().forEach(child -> all.put(child.pid(), child));
+        }
+        return new ArrayList<>(all.values());
+    }
+
+    /**
+     * Resident set size của một process (KB), -1 nếu không đọc được (chỉ hỗ trợ Linux /proc)
+     */
+    public static long rssKb(long pid) {
+        Path status = Paths.get("/proc", String.valueOf(pid), "status");
+        try {
+            for (String line : Files.readAllLines(status)) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("[^0-9]", ""));
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            return -1;
+        }
+        return -1;
+    }
+
+    /**
+     * Tổng RSS (KB) của các process, -1 nếu không đo được
+     */
+    public static long totalRssKb(List<ProcessHandle> processes) {
+        long total = 0;
+        boolean measured = false;
+        for (ProcessHandle process : processes) {
+            long rss = rssKb(process.pid());
+            if (rss >= 0) {
+                total += rss;
+                measured = true;
+            }
+        }
+        return measured ? total : -1;
+    }
+
+    /**
+     * Kill ngay các process (bỏ qua process đã thoát)
+     */
+    public static void destroyAll(List<ProcessHandle> processes) {
+        for (ProcessHandle process : processes) {
+            if (process.isAlive()) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    /**
+     * Thời điểm process khởi động (epoch ms), -1 nếu không đọc được
+     * Dùng cùng pid để tránh nhầm với process mới được cấp lại pid cũ
+     */
+    public static long startMillis(ProcessHandle process) {
+        return process.info().startInstant().map(instant -> instant.toEpochMilli()).orElse(-1L);
+    }
+
+    /**
+     * CPU time đã dùng (ms), -1 nếu không đọc được
+     */
+    public static long cpuMillis(ProcessHandle process) {
+        return process.info().totalCpuDuration().map(duration -> duration.toMillis()).orElse(-1L);
+    }
+
+    /**
+     * Tổng RAM của máy (KB), -1 nếu không đọc được (chỉ hỗ trợ Linux /proc)
+     */
+    public static long memTotalKb() {
+        try {
+            for (String line : Files.readAllLines(Paths.get("/proc/meminfo"))) {
+                if (line.startsWith("MemTotal:")) {
+                    return Long.parseLong(line.replaceAll("[^0-9]", ""));
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            return -1;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,104 @@
+package com.happyorder.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+/**
+ * File .properties dùng làm cache lưu giữa các lần chạy
+ * Ghi ra file tạm rồi move để nhiều JVM chạy song song không đọc phải file ghi dở
+ */
+public class PropertiesStore {
+
+    private final Path file;
+    private final Properties properties = new Properties();
+
+    public PropertiesStore(Path file) {
+        this.file = file;
+        reload();
+    }
+
+    /**
+     * Thư mục cache dùng chung (-Dhappyorder.cache.dir, mặc định ~/.happyorder)
+     */
+    public static Path cacheDir() {
+        String dir = System.getProperty("happyorder.cache.dir",
+                System.getProperty("user.home") + "/.happyorder");
+        return Paths.get(dir);
+    }
+
+    /**
+     * Mở file {@code fileName} trong thư mục cache dùng chung
+     */
+    public static PropertiesStore inCacheDir(String fileName) {
+        return new PropertiesStore(cacheDir().resolve(fileName));
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public synchronized String get(String key) {
+        return properties.getProperty(key);
+    }
+
+    public synchronized Map<String, String> asMap() {
+        Map<String, String> copy = new TreeMap<>();
+        for (String key : properties.stringPropertyNames()) {
+            copy.put(key, properties.getProperty(key));
+        }
+        return copy;
+    }
+
+    public synchronized void put(String key, String value) {
+        putAll(Map.of(key, value));
+    }
+
+    /**
+     * Gộp với nội dung hiện tại trên đĩa rồi ghi lại
+     */
+    public synchronized void putAll(Map<String, String> values) {
+        reload();
+        properties.putAll(values);
+        save();
+    }
+
+    public synchronized void remove(String key) {
+        reload();
+        properties.remove(key);
+        save();
+    }
+
+    private void reload() {
+        if (!Files.exists(file)) {
+            return;
+        }
+        try (InputStream in = Files.newInputStream(file)) {
+            Properties onDisk = new Properties();
+            onDisk.load(in);
+            properties.putAll(onDisk);
+        } catch (IOException e) {
+            System.out.println("Could not read " + file + ": " + e.getMessage());
+        }
+    }
+
+    private void save() {
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Path temp = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                properties.store(out, "HappyOrder automation cache");
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.out.println("Could not write " + file + ": " + e.getMessage());
+        }
+    }
+}
@@ -1,23 +1,28 @@
 package com.happyorder.utils;
 
+import com.happyorder.base.ElementCache;
+import com.happyorder.base.KeyboardInput;
+import com.happyorder.base.WaitEngine;
 import org.openqa.selenium.*;
-import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.Select;
-import org.openqa.selenium.support.ui.WebDriverWait;
 
 import java.time.Duration;
+import java.util.Map;
+import java.util.function.Supplier;
 
 public class WebElementUtils {
     private WebDriver driver;
-    private static final int DEFAULT_TIMEOUT = 10;
+    private ElementCache elements;
+    private static final int DEFAULT_TIMEOUT = WaitEngine.DEFAULT_TIMEOUT;
 
     public WebElementUtils(WebDriver driver) {
         this.driver = driver;
+        this.elements = new ElementCache(driver);
     }
 
     public WebElement waitForElementVisible(By locator, int timeout) {
-        WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(timeout));
-        return wait.until(ExpectedConditions.visibilityOfElementLocated(locator));
+        // Element đã thấy trên trang hiện tại được dùng lại nếu vẫn hiển thị (ElementCache)
+        return elements.getVisible(locator, () -> new WaitEngine(driver).visible(locator, Duration.ofSeconds(timeout)));
     }
 
     public WebElement waitForElementVisible(By locator) {
@@ -25,8 +30,8 @@ public class WebElementUtils {
     }
 
     public WebElement waitForElementClickable(By locator, int timeout) {
-        WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(timeout));
-        return wait.until(ExpectedConditions.elementToBeClickable(locator));
+        Supplier<WebElement> clickable = () -> new WaitEngine(driver).clickable(locator, Duration.ofSeconds(timeout));
+        return elements.put(locator, clickable.get(), clickable);
     }
 
     public WebElement waitForElementClickable(By locator) {
@@ -43,16 +48,20 @@ public class WebElementUtils {
         element.sendKeys(text);
     }
 
+    /**
+     * Gõ các field rồi click submit trong một Actions.perform (xem KeyboardInput)
+     */
+    public void typeAndSubmit(Map<By, String> values, By submit) {
+        new KeyboardInput(driver, elements, this::waitForElementVisible).typeAndSubmit(values, submit);
+    }
+
     public String getText(By locator) {
         return waitForElementVisible(locator).getText();
     }
 
     public boolean isElementDisplayed(By locator) {
-        try {
-            return waitForElementVisible(locator, 5).isDisplayed();
-        } catch (TimeoutException e) {
-            return false;
-        }
+        // Không chờ implicit wait cho mỗi lần poll, element không có chỉ tốn đúng 5 giây
+        return new WaitEngine(driver).isDisplayed(locator, Duration.ofSeconds(5));
     }
 
     public void selectDropdownByVisibleText(By locator, String text) {
@@ -68,20 +77,18 @@ public class WebElementUtils {
     }
 
     public void scrollToElement(By locator) {
-        WebElement element = driver.findElement(locator);
+        WebElement element = elements.find(locator);
         JavascriptExecutor js = (JavascriptExecutor) driver;
         js.executeScript("arguments[0].scrollIntoView(true);", element);
     }
 
     public void clickByJavaScript(By locator) {
-        WebElement element = driver.findElement(locator);
+        WebElement element = elements.find(locator);
         JavascriptExecutor js = (JavascriptExecutor) driver;
         js.executeScript("arguments[0].click();", element);
     }
 
     public void waitForPageLoad() {
-        WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(30));
-        wait.until(webDriver -> ((JavascriptExecutor) webDriver)
-                .executeScript("return document.readyState").equals("complete"));
+        new WaitEngine(driver).documentReady(Duration.ofSeconds(30));
     }
 }
@@ -0,0 +1,71 @@
+package com.happyorder.base;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+// Tính timeout từ lịch sử chờ, không cần mở browser (không đọc/ghi wait-history.properties)
+@NoBrowser
+public class AdaptiveTimeoutsTest extends BaseTest {
+
+    private static AdaptiveTimeouts.History samples(long... millis) {
+        return AdaptiveTimeouts.History.parse(LongStream.of(millis).mapToObj(String::valueOf)
+                .collect(Collectors.joining(",")));
+    }
+
+    @Test(description = "Percentile is the nearest-rank sample of the history")
+    public void testPercentile() {
+        AdaptiveTimeouts.History history = samples(LongStream.rangeClosed(1, 20).map(i -> i * 100).toArray());
+
+        int rank = (int) Math.ceil(AdaptiveTimeouts.PERCENTILE / 100.0 * 20);
+        Assert.assertEquals(history.percentile(), Math.max(1, Math.min(rank, 20)) * 100L);
+        Assert.assertEquals(history.max(), 2000L);
+        Assert.assertEquals(samples().percentile(), 0L);
+    }
+
+    @Test(description = "No adaptive timeout until the history has enough samples")
+    public void testMinSamples() {
+        long[] tooFew = LongStream.generate(() -> 5000).limit(AdaptiveTimeouts.MIN_SAMPLES - 1).toArray();
+        Assert.assertEquals(samples(tooFew).adaptiveMillis(), -1L);
+
+        long[] enough = LongStream.generate(() -> 5000).limit(AdaptiveTimeouts.MIN_SAMPLES).toArray();
+        Assert.assertEquals(samples(enough).adaptiveMillis(), (long) (5000 * AdaptiveTimeouts.SAFETY_FACTOR));
+    }
+
+    @Test(description = "Fast elements still get at least the floor")
+    public void testFloor() {
+        long[] fast = LongStream.generate(() -> 1).limit(AdaptiveTimeouts.MIN_SAMPLES).toArray();
+        Assert.assertEquals(samples(fast).adaptiveMillis(),
+                Math.max(AdaptiveTimeouts.FLOOR_MILLIS, (long) AdaptiveTimeouts.SAFETY_FACTOR));
+    }
+
+    @Test(description = "Only the most recent samples are kept")
+    public void testHistorySize() {
+        AdaptiveTimeouts.History history = samples(60_000);
+        for (int i = 0; i < AdaptiveTimeouts.HISTORY_SIZE; i++) {
+            history.add(100);
+        }
+        Assert.assertEquals(history.size(), AdaptiveTimeouts.HISTORY_SIZE);
+        Assert.assertEquals(history.max(), 100L);
+        Assert.assertEquals(samples(100, 200).serialize(), "100,200");
+    }
+
+    @Test(description = "Grace never goes past the configured timeout")
+    public void testGrace() {
+        Duration configured = Duration.ofSeconds(10);
+        Assert.assertEquals(AdaptiveTimeouts.graceFor(configured, configured), Duration.ZERO);
+        Assert.assertEquals(AdaptiveTimeouts.graceFor(Duration.ofSeconds(9), configured),
+                Duration.ofMillis(Math.min(AdaptiveTimeouts.GRACE_MILLIS, 1000)));
+    }
+
+    @Test(description = "Keys group waits by page path with numeric ids folded")
+    public void testKey() {
+        Assert.assertEquals(AdaptiveTimeouts.key("https://happyorder.vn/orders/123/edit?tab=2", "visible"),
+                "/orders/{id}/edit visible");
+        Assert.assertEquals(AdaptiveTimeouts.key("https://happyorder.vn", "visible"), "/ visible");
+        Assert.assertEquals(AdaptiveTimeouts.key("not a url", "visible"), "/ visible");
+    }
+}
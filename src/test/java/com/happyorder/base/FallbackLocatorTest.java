@@ -0,0 +1,100 @@
+package com.happyorder.base;
+
+import com.happyorder.utils.PropertiesStore;
+import org.openqa.selenium.By;
+import org.openqa.selenium.support.pagefactory.ByChained;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+// Thứ tự thử các locator dự phòng, không cần mở browser
+// (ứng viên thắng được ghi vào locator-cache.properties tạm, không đụng tới cache thật)
+@NoBrowser
+public class FallbackLocatorTest extends BaseTest {
+
+    private final By css = By.cssSelector("input[name='username']");
+    private final By xpath = By.xpath("//input[@name='username']");
+    private final By placeholder = By.cssSelector("input[placeholder='Tên đăng nhập']");
+    private String name;
+    private Field cacheField;
+    private Object realCache;
+    private Path cacheFile;
+
+    @BeforeClass
+    public void useTemporaryCache() throws ReflectiveOperationException, IOException {
+        cacheFile = Files.createTempFile("locator-cache", ".properties");
+        cacheField = FallbackLocator.class.getDeclaredField("cache");
+        cacheField.setAccessible(true);
+        realCache = cacheField.get(null);
+        cacheField.set(null, new PropertiesStore(cacheFile));
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void restoreCache() throws ReflectiveOperationException, IOException {
+        cacheField.set(null, realCache);
+        Files.deleteIfExists(cacheFile);
+    }
+
+    @BeforeMethod
+    public void createName() {
+        name = "FallbackLocatorTest." + UUID.randomUUID();
+    }
+
+    @Test(description = "Candidates are tried in declaration order until one matches")
+    public void testDeclarationOrder() {
+        FallbackLocator locator = FallbackLocator.of(name, css, xpath, placeholder);
+
+        Assert.assertEquals(locator.getCandidates(), List.of(css, xpath, placeholder));
+        Assert.assertTrue(locator.toString().contains(name), locator.toString());
+    }
+
+    @Test(description = "The last matching candidate is tried first, the others keep their order")
+    public void testWinnerFirst() {
+        FallbackLocator locator = FallbackLocator.of(name, css, xpath, placeholder);
+
+        locator.recordMatch(placeholder);
+        Assert.assertEquals(locator.getCandidates(), List.of(placeholder, css, xpath));
+
+        locator.recordMatch(xpath);
+        Assert.assertEquals(locator.getCandidates(), List.of(xpath, css, placeholder));
+
+        locator.recordMatch(css);
+        Assert.assertEquals(locator.getCandidates(), List.of(css, xpath, placeholder));
+    }
+
+    @Test(description = "The winner is remembered for the next run")
+    public void testWinnerPersisted() {
+        FallbackLocator.of(name, css, xpath, placeholder).recordMatch(xpath);
+
+        Assert.assertEquals(FallbackLocator.of(name, css, xpath, placeholder).getCandidates(),
+                List.of(xpath, css, placeholder));
+        // Ứng viên đã lưu không còn trong danh sách: về thứ tự khai báo
+        Assert.assertEquals(FallbackLocator.of(name, css, placeholder).getCandidates(), List.of(css, placeholder));
+    }
+
+    @Test(description = "Candidates are passed to the browser as [using, value] in try order")
+    public void testScriptCandidates() {
+        FallbackLocator locator = FallbackLocator.of(name, css, xpath);
+        locator.recordMatch(xpath);
+
+        Assert.assertEquals(FallbackLocator.toScriptCandidates(locator.getCandidates()), List.of(
+                List.of("xpath", "//input[@name='username']"),
+                List.of("css selector", "input[name='username']")));
+    }
+
+    @Test(description = "Only standard locators can be candidates")
+    public void testInvalidCandidates() {
+        Assert.expectThrows(IllegalArgumentException.class, () -> FallbackLocator.of(name));
+        Assert.expectThrows(IllegalArgumentException.class,
+                () -> FallbackLocator.of(name, css, new ByChained(By.tagName("form"), xpath)));
+    }
+}
@@ -0,0 +1,127 @@
+package com.happyorder.base;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Cache lệnh đọc trên một driver giả (ghi lại lệnh nào thật sự tới "browser"), không cần mở browser
+@NoBrowser
+public class ReadCacheTest extends BaseTest {
+
+    public interface ScriptDriver extends WebDriver, JavascriptExecutor {
+    }
+
+    private final List<String> commands = Collections.synchronizedList(new ArrayList<>());
+    private ReadCache cache;
+    private WebDriver driver;
+
+    @BeforeMethod
+    public void createFakeDriver() {
+        commands.clear();
+        ScriptDriver raw = (ScriptDriver) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[]{ScriptDriver.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        case "toString":
+                            return "fake driver";
+                        default:
+                            commands.add(method.getName());
+                    }
+                    switch (method.getName()) {
+                        case "getCurrentUrl":
+                            return "https://happyorder.vn/dashboard";
+                        case "getTitle":
+                            return "HappyOrder";
+                        case "getWindowHandle":
+                            return "window-1";
+                        default:
+                            return null;
+                    }
+                });
+        cache = new ReadCache();
+        // decorate thay vì wrap: không phụ thuộc -Ddriver.readCache
+        driver = cache.decorate(raw);
+    }
+
+    private long sent(String command) {
+        synchronized (commands) {
+            return commands.stream().filter(command::equals).count();
+        }
+    }
+
+    @Test(description = "Repeated reads are answered from the cache")
+    public void testRepeatedReads() {
+        Assert.assertEquals(driver.getCurrentUrl(), "https://happyorder.vn/dashboard");
+        Assert.assertEquals(driver.getCurrentUrl(), "https://happyorder.vn/dashboard");
+        Assert.assertEquals(driver.getTitle(), "HappyOrder");
+        Assert.assertEquals(driver.getTitle(), "HappyOrder");
+
+        Assert.assertEquals(sent("getCurrentUrl"), 1);
+        Assert.assertEquals(sent("getTitle"), 1);
+    }
+
+    @Test(description = "Read-only commands keep the cache")
+    public void testReadOnlyKeepsCache() {
+        driver.getCurrentUrl();
+        Assert.assertEquals(driver.getWindowHandle(), "window-1");
+        driver.getCurrentUrl();
+
+        Assert.assertEquals(sent("getCurrentUrl"), 1);
+    }
+
+    @Test(description = "Any other command clears the cache")
+    public void testCommandsInvalidate() {
+        driver.getCurrentUrl();
+        ((JavascriptExecutor) driver).executeScript("history.pushState({}, '', '/orders')");
+        driver.getCurrentUrl();
+        driver.get("https://happyorder.vn/orders");
+        driver.getCurrentUrl();
+        driver.getTitle();
+
+        Assert.assertEquals(sent("getCurrentUrl"), 3);
+        Assert.assertEquals(sent("getTitle"), 1);
+    }
+
+    @Test(description = "clear() drops every cached value")
+    public void testClear() {
+        driver.getCurrentUrl();
+        driver.getTitle();
+        cache.clear();
+        driver.getCurrentUrl();
+        driver.getTitle();
+
+        Assert.assertEquals(sent("getCurrentUrl"), 2);
+        Assert.assertEquals(sent("getTitle"), 2);
+    }
+
+    @Test(description = "Cached values expire after the TTL")
+    public void testTtl() throws InterruptedException {
+        driver.getCurrentUrl();
+        Thread.sleep(ReadCache.TTL_MILLIS + 50);
+        driver.getCurrentUrl();
+
+        Assert.assertEquals(sent("getCurrentUrl"), 2);
+    }
+
+    @Test(description = "Reads inside uncached() always reach the browser and refresh the cache")
+    public void testUncached() {
+        driver.getCurrentUrl();
+        ReadCache.uncached(driver::getCurrentUrl);
+        ReadCache.uncached(() -> ReadCache.uncached(driver::getCurrentUrl));
+        Assert.assertEquals(sent("getCurrentUrl"), 3);
+
+        // Giá trị mới đọc trong uncached() vẫn được dùng sau đó
+        driver.getCurrentUrl();
+        Assert.assertEquals(sent("getCurrentUrl"), 3);
+    }
+}
@@ -0,0 +1,67 @@
+package com.happyorder.base;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Đọc thời điểm hết hạn của token đã lưu và kiểm tra origin, không cần mở browser
+@NoBrowser
+public class SessionStateCacheTest extends BaseTest {
+
+    private static String jwt(String payload) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString("{\"alg\":\"HS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8))
+                + "." + encoder.encodeToString(payload.getBytes(StandardCharsets.UTF_8))
+                + "." + encoder.encodeToString("signature".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test(description = "exp of a JWT is read in milliseconds")
+    public void testJwtExpiry() {
+        String token = jwt("{\"sub\":\"admin\",\"exp\":1893456000,\"iat\":1893452400}");
+
+        Assert.assertEquals(SessionStateCache.jwtExpiry(token), 1893456000_000L);
+        Assert.assertEquals(SessionStateCache.jwtExpiry(jwt("{\"exp\" : 1893456000}")), 1893456000_000L);
+    }
+
+    @Test(description = "Tokens stored as a Bearer header or a JSON string are recognised")
+    public void testWrappedToken() {
+        String token = jwt("{\"exp\":1893456000}");
+
+        Assert.assertEquals(SessionStateCache.jwtExpiry("Bearer " + token), 1893456000_000L);
+        Assert.assertEquals(SessionStateCache.jwtExpiry("\"" + token + "\""), 1893456000_000L);
+    }
+
+    @Test(description = "Values that are not a JWT with exp have no expiry")
+    public void testNoExpiry() {
+        Assert.assertEquals(SessionStateCache.jwtExpiry(null), 0L);
+        Assert.assertEquals(SessionStateCache.jwtExpiry(""), 0L);
+        Assert.assertEquals(SessionStateCache.jwtExpiry("vi"), 0L);
+        Assert.assertEquals(SessionStateCache.jwtExpiry("{\"theme\":\"dark\"}"), 0L);
+        Assert.assertEquals(SessionStateCache.jwtExpiry(jwt("{\"sub\":\"admin\"}")), 0L);
+        // Phần payload không decode được
+        Assert.assertEquals(SessionStateCache.jwtExpiry("eyJhbGciOiJIUzI1NiJ9.A.c2ln"), 0L);
+    }
+
+    @Test(description = "A login is reused only on the origin it was captured on")
+    public void testSameOrigin() {
+        SessionStateCache.requireSameOrigin("http://10.110.10.183:20001/auth/login",
+                "http://10.110.10.183:20001/home?tab=orders");
+        SessionStateCache.requireSameOrigin("https://HappyOrder.com/auth/login", "https://happyorder.com/home");
+    }
+
+    @Test(description = "A target on another origin fails before any login")
+    public void testOtherOrigin() {
+        IllegalArgumentException e = Assert.expectThrows(IllegalArgumentException.class,
+                () -> SessionStateCache.requireSameOrigin("http://10.110.10.183:20001/auth/login",
+                        "https://happyorder.com/home"));
+        Assert.assertTrue(e.getMessage().contains("http://10.110.10.183:20001"), e.getMessage());
+
+        Assert.expectThrows(IllegalArgumentException.class,
+                () -> SessionStateCache.requireSameOrigin("http://happyorder.com/auth/login", "https://happyorder.com/home"));
+        Assert.expectThrows(IllegalArgumentException.class,
+                () -> SessionStateCache.requireSameOrigin("http://10.110.10.183:20001/auth/login",
+                        "http://10.110.10.183:20002/home"));
+    }
+}
@@ -0,0 +1,94 @@
+package com.happyorder.base;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Ngân sách thời gian của test, không cần mở browser (BaseTest.tearDown gọi TestDeadline.finish)
+@NoBrowser
+public class TestDeadlineTest extends BaseTest {
+
+    // Lần chờ không bao giờ thoả: trả về false sau khi hết timeout
+    private static boolean sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis() + 1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return false;
+    }
+
+    @Test(description = "Without a budget waits keep their own timeout")
+    public void testNoBudget() {
+        TestDeadline.start("testNoBudget", Duration.ZERO);
+
+        Assert.assertNull(TestDeadline.remaining());
+        Duration timeout = Duration.ofSeconds(10);
+        Assert.assertEquals(TestDeadline.spend("visible", timeout, effective -> effective), timeout);
+    }
+
+    @Test(description = "Waits shorter than the remaining budget are not clamped")
+    public void testTimeoutWithinBudget() {
+        TestDeadline.start("testTimeoutWithinBudget", Duration.ofSeconds(60));
+
+        Duration timeout = Duration.ofSeconds(10);
+        Assert.assertEquals(TestDeadline.spend("visible", timeout, effective -> effective), timeout);
+    }
+
+    @Test(description = "Waits longer than the remaining budget are clamped to it")
+    public void testTimeoutClamped() {
+        TestDeadline.start("testTimeoutClamped", Duration.ofSeconds(2));
+
+        Duration effective = TestDeadline.spend("visible", Duration.ofSeconds(30), timeout -> timeout);
+        Assert.assertTrue(effective.compareTo(Duration.ofSeconds(2)) <= 0, "Not clamped: " + effective);
+        Assert.assertTrue(effective.compareTo(Duration.ZERO) > 0, "Clamped to nothing: " + effective);
+    }
+
+    @Test(description = "Nested waits share the outer clamp and are recorded once")
+    public void testNestedWaits() {
+        TestDeadline.start("testNestedWaits", Duration.ofSeconds(2));
+
+        Duration inner = TestDeadline.spend("pageReady", Duration.ofSeconds(30),
+                outer -> TestDeadline.spend("documentReady", Duration.ofSeconds(30), timeout -> timeout));
+        Assert.assertTrue(inner.compareTo(Duration.ofSeconds(2)) <= 0, "Not clamped: " + inner);
+
+        TestDeadline.ExceededException e = Assert.expectThrows(TestDeadline.ExceededException.class,
+                () -> TestDeadline.spend("visible", Duration.ofSeconds(30), TestDeadlineTest::sleep));
+        Assert.assertTrue(e.getMessage().contains("pageReady"), e.getMessage());
+        Assert.assertFalse(e.getMessage().contains("documentReady"), e.getMessage());
+    }
+
+    @Test(description = "A clamped wait that runs out fails with the budget breakdown")
+    public void testBudgetExceeded() {
+        TestDeadline.start("testBudgetExceeded", Duration.ofMillis(200));
+
+        TestDeadline.ExceededException e = Assert.expectThrows(TestDeadline.ExceededException.class,
+                () -> TestDeadline.spend("visible //span", Duration.ofSeconds(30), TestDeadlineTest::sleep));
+        Assert.assertTrue(e.getMessage().contains("testBudgetExceeded"), e.getMessage());
+        Assert.assertTrue(e.getMessage().contains("visible //span"), e.getMessage());
+
+        // Mọi command sau đó cũng fail, trừ phần chẩn đoán chạy trong unbounded
+        Assert.expectThrows(TestDeadline.ExceededException.class, () -> TestDeadline.checkCurrent("click"));
+        AtomicBoolean diagnosed = new AtomicBoolean();
+        TestDeadline.unbounded(() -> {
+            TestDeadline.checkCurrent("getPageSource");
+            diagnosed.set(true);
+        });
+        Assert.assertTrue(diagnosed.get());
+        Assert.expectThrows(TestDeadline.ExceededException.class, () -> TestDeadline.checkCurrent("click"));
+    }
+
+    @Test(description = "A wait that fails on its own timeout keeps its own exception")
+    public void testOwnTimeoutNotExceeded() {
+        TestDeadline.start("testOwnTimeoutNotExceeded", Duration.ofSeconds(60));
+
+        IllegalStateException failure = new IllegalStateException("element not visible");
+        IllegalStateException thrown = Assert.expectThrows(IllegalStateException.class,
+                () -> TestDeadline.spend("visible", Duration.ofMillis(10), timeout -> {
+                    throw failure;
+                }));
+        Assert.assertSame(thrown, failure);
+    }
+}
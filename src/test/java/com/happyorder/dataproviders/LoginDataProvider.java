@@ -37,6 +37,19 @@ public class LoginDataProvider extends BaseDataProvider {
         return readExcelData(LOGIN_DATA_FILE, LOGIN_SHEET, columns);
     }
 
+    /**
+     * Same rows as loginTestData, but handed out to TestNG worker threads in parallel
+     * Each thread gets its own browser session through DriverManager
+     * Thread count is controlled by data-provider-thread-count in testng.xml
+     *
+     * @return Object[][] - Array of login test data
+     * @throws IOException if Excel file cannot be read
+     */
+    @DataProvider(name = "loginTestDataParallel", parallel = true)
+    public static Object[][] loginTestDataParallel() throws IOException {
+        return loginTestData();
+    }
+
     /**
      * Provides basic login credentials only (username and password)
      * Returns: STT, UserName, Password
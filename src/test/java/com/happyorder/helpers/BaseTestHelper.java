@@ -1,9 +1,14 @@
 package com.happyorder.helpers;
 
+import com.happyorder.base.DriverManager;
+import com.happyorder.base.TestDeadline;
+import com.happyorder.base.WaitEngine;
 import com.happyorder.utils.ExcelUtils;
 import com.happyorder.utils.ScreenshotUtils;
 import org.openqa.selenium.WebDriver;
 
+import java.time.Duration;
+
 /**
  * Base Test Helper - Contains all common reusable test logic
  * This class centralizes common functionality used across all test classes
@@ -22,17 +27,17 @@ public class BaseTestHelper {
     // ==================== COMMON ACTIONS ====================
 
     /**
-     * Wait for page to load
+     * Wait for page to load (document ready and DOM settled), at most the given time
      */
     public static void waitForPageLoad(int milliseconds) throws InterruptedException {
-        Thread.sleep(milliseconds);
+        WaitEngine.current().pageReady(Duration.ofMillis(milliseconds));
     }
 
     /**
-     * Wait for page to load with default time
+     * Wait for page to load with default timeout
      */
     public static void waitForPageLoad() throws InterruptedException {
-        Thread.sleep(PAGE_LOAD_WAIT);
+        WaitEngine.current().pageReady();
     }
 
     // ==================== SCREENSHOT METHODS ====================
@@ -52,6 +57,13 @@ public class BaseTestHelper {
         captureScreenshotWithTitle(driver, title, SCREENSHOT_PREFIX);
     }
 
+    /**
+     * Capture screenshot with sanitized title using the current thread's driver
+     */
+    public static void captureScreenshotWithTitle(String title, String prefix) {
+        captureScreenshotWithTitle(DriverManager.getDriver(), title, prefix);
+    }
+
     /**
      * Capture screenshot with custom name
      */
@@ -59,6 +71,13 @@ public class BaseTestHelper {
         ScreenshotUtils.captureScreenshot(driver, screenshotName);
     }
 
+    /**
+     * Capture screenshot with custom name using the current thread's driver
+     */
+    public static void captureScreenshot(String screenshotName) {
+        captureScreenshot(DriverManager.getDriver(), screenshotName);
+    }
+
     /**
      * Sanitize filename by removing special characters
      */
@@ -173,6 +192,13 @@ public class BaseTestHelper {
         System.out.println("Page Title: " + driver.getTitle());
     }
 
+    /**
+     * Print page information of the current thread's driver
+     */
+    public static void printPageInfo() {
+        printPageInfo(DriverManager.getDriver());
+    }
+
     /**
      * Print success message
      */
@@ -216,12 +242,15 @@ public class BaseTestHelper {
         System.out.println("Error during test: " + e.getMessage());
         e.printStackTrace();
 
-        // Capture error screenshot
-        String screenshotName = sanitizeFileName(title);
-        ScreenshotUtils.captureScreenshot(driver, prefix + "Error_" + screenshotName);
+        // Diagnostics must still run when the test failed because its time budget ran out
+        TestDeadline.unbounded(() -> {
+            // Capture error screenshot
+            String screenshotName = sanitizeFileName(title);
+            ScreenshotUtils.captureScreenshot(driver, prefix + "Error_" + screenshotName);
 
-        // Print page source for debugging
-        printPageSourceDebug(driver);
+            // Print page source for debugging
+            printPageSourceDebug(driver);
+        });
     }
 
     /**
@@ -231,6 +260,13 @@ public class BaseTestHelper {
         handleTestException(driver, e, title, SCREENSHOT_PREFIX);
     }
 
+    /**
+     * Handle test exception using the current thread's driver
+     */
+    public static void handleTestException(Exception e, String title, String prefix) {
+        handleTestException(DriverManager.getDriver(), e, title, prefix);
+    }
+
     /**
      * Print page source for debugging (first 500 chars)
      */
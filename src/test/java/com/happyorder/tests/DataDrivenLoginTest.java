@@ -1,11 +1,14 @@
 package com.happyorder.tests;
 
 import com.happyorder.base.BaseTest;
+import com.happyorder.base.NoBrowser;
 import com.happyorder.dataproviders.LoginDataProvider;
 import org.testng.annotations.Test;
 
 import java.io.IOException;
 
+// Chỉ đọc và in dữ liệu Excel, không cần mở browser
+@NoBrowser
 public class DataDrivenLoginTest extends BaseTest {
 
     @Test(dataProvider = "loginBasicData",
@@ -1,6 +1,7 @@
 package com.happyorder.tests;
 
 import com.happyorder.base.BaseTest;
+import com.happyorder.base.WaitEngine;
 import com.happyorder.utils.ScreenshotUtils;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebElement;
@@ -15,23 +16,19 @@ public class DebugHappyOrderTest extends BaseTest {
         System.out.println("\n=== Analyzing HappyOrder Login Page ===\n");
 
         // Navigate to login page
-        driver.get("https://happyorder.vn/client-area/auth/login");
-        System.out.println("Navigated to: " + driver.getCurrentUrl());
-        System.out.println("Page Title: " + driver.getTitle());
+        getDriver().get("https://happyorder.vn/client-area/auth/login");
+        System.out.println("Navigated to: " + getDriver().getCurrentUrl());
+        System.out.println("Page Title: " + getDriver().getTitle());
 
-        // Wait for page to load
-        try {
-            Thread.sleep(5000); // Wait 5 seconds for JavaScript to load
-        } catch (InterruptedException e) {
-            e.printStackTrace();
-        }
+        // Wait for page to load and JavaScript to render
+        WaitEngine.current().pageReady();
 
         // Capture screenshot
-        ScreenshotUtils.captureScreenshot(driver, "Debug_LoginPage_Full");
+        ScreenshotUtils.captureScreenshot(getDriver(), "Debug_LoginPage_Full");
 
         // Find all input fields
         System.out.println("\n--- All INPUT elements ---");
-        List<WebElement> inputs = driver.findElements(By.tagName("input"));
+        List<WebElement> inputs = getDriver().findElements(By.tagName("input"));
         System.out.println("Total inputs found: " + inputs.size());
         for (int i = 0; i < inputs.size() && i < 10; i++) {
             WebElement input = inputs.get(i);
@@ -46,7 +43,7 @@ public class DebugHappyOrderTest extends BaseTest {
 
         // Find all buttons
         System.out.println("\n--- All BUTTON elements ---");
-        List<WebElement> buttons = driver.findElements(By.tagName("button"));
+        List<WebElement> buttons = getDriver().findElements(By.tagName("button"));
         System.out.println("Total buttons found: " + buttons.size());
         for (int i = 0; i < buttons.size() && i < 10; i++) {
             WebElement button = buttons.get(i);
@@ -60,7 +57,7 @@ public class DebugHappyOrderTest extends BaseTest {
 
         // Find all forms
         System.out.println("\n--- All FORM elements ---");
-        List<WebElement> forms = driver.findElements(By.tagName("form"));
+        List<WebElement> forms = getDriver().findElements(By.tagName("form"));
         System.out.println("Total forms found: " + forms.size());
         for (int i = 0; i < forms.size(); i++) {
             WebElement form = forms.get(i);
@@ -74,7 +71,7 @@ public class DebugHappyOrderTest extends BaseTest {
 
         // Print page source (first 2000 characters)
         System.out.println("\n--- Page Source (first 2000 chars) ---");
-        String pageSource = driver.getPageSource();
+        String pageSource = getDriver().getPageSource();
         System.out.println(pageSource.substring(0, Math.min(2000, pageSource.length())));
         System.out.println("\n... (truncated)\n");
 
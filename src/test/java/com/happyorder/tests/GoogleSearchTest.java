@@ -1,15 +1,18 @@
 package com.happyorder.tests;
 
 import com.happyorder.base.BaseTest;
+import com.happyorder.base.WaitEngine;
 import com.happyorder.pages.GoogleHomePage;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.time.Duration;
+
 public class GoogleSearchTest extends BaseTest {
 
     @Test(priority = 1, description = "Verify Google homepage loads successfully")
     public void testGoogleHomePageLoad() {
-        GoogleHomePage homePage = new GoogleHomePage(driver);
+        GoogleHomePage homePage = new GoogleHomePage(getDriver());
         homePage.navigateToGoogle();
 
         Assert.assertTrue(homePage.isSearchBoxDisplayed(), "Search box is not displayed");
@@ -18,26 +21,22 @@ public class GoogleSearchTest extends BaseTest {
 
     @Test(priority = 2, description = "Verify search functionality works")
     public void testGoogleSearch() {
-        GoogleHomePage homePage = new GoogleHomePage(driver);
+        GoogleHomePage homePage = new GoogleHomePage(getDriver());
         homePage.navigateToGoogle();
 
         String searchTerm = "Selenium WebDriver";
         homePage.performSearch(searchTerm);
 
         // Wait for results page to load
-        try {
-            Thread.sleep(2000);
-        } catch (InterruptedException e) {
-            e.printStackTrace();
-        }
+        WaitEngine.current().routeContains("search", Duration.ofSeconds(10));
 
-        String currentUrl = driver.getCurrentUrl();
+        String currentUrl = getDriver().getCurrentUrl();
         Assert.assertTrue(currentUrl.contains("search"), "Search was not performed successfully");
     }
 
     @Test(priority = 3, description = "Verify search box accepts input")
     public void testSearchBoxInput() {
-        GoogleHomePage homePage = new GoogleHomePage(driver);
+        GoogleHomePage homePage = new GoogleHomePage(getDriver());
         homePage.navigateToGoogle();
 
         String testText = "TestNG Framework";
@@ -1,6 +1,7 @@
 package com.happyorder.tests;
 
 import com.happyorder.base.BaseTest;
+import com.happyorder.base.WaitEngine;
 import com.happyorder.dataproviders.LoginDataProvider;
 import com.happyorder.pages.HappyOrderLoginPage;
 import com.happyorder.utils.ExcelUtils;
@@ -9,6 +10,7 @@ import org.testng.Assert;
 import org.testng.annotations.Test;
 
 import java.io.IOException;
+import java.time.Duration;
 
 public class HappyOrderLoginTest extends BaseTest {
 
@@ -28,7 +30,7 @@ public class HappyOrderLoginTest extends BaseTest {
                                      String password, String expectedMessage, String result) throws InterruptedException {
         printTestHeader(title, step, username, expectedMessage);
 
-        HappyOrderLoginPage loginPage = new HappyOrderLoginPage(driver);
+        HappyOrderLoginPage loginPage = new HappyOrderLoginPage(getDriver());
         String testResult = "Failed";
         String actualMessage = "";
 
@@ -73,11 +75,11 @@ public class HappyOrderLoginTest extends BaseTest {
                                 String password, String expectedMessage, String result) throws InterruptedException {
         printSmokeTestHeader(title, username);
 
-        HappyOrderLoginPage loginPage = new HappyOrderLoginPage(driver);
+        HappyOrderLoginPage loginPage = new HappyOrderLoginPage(getDriver());
 
         try {
             performLogin(loginPage, username, password);
-            ScreenshotUtils.captureScreenshot(driver, SCREENSHOT_PREFIX + "Single_Login");
+            ScreenshotUtils.captureScreenshot(getDriver(), SCREENSHOT_PREFIX + "Single_Login");
             printPageInfo(loginPage);
 
             if (loginPage.isLoginSuccessful()) {
@@ -88,7 +90,7 @@ public class HappyOrderLoginTest extends BaseTest {
 
         } catch (Exception e) {
             System.out.println("Error: " + e.getMessage());
-            ScreenshotUtils.captureScreenshot(driver, SCREENSHOT_PREFIX + "Single_Login_Error");
+            ScreenshotUtils.captureScreenshot(getDriver(), SCREENSHOT_PREFIX + "Single_Login_Error");
             throw e;
         }
     }
@@ -99,10 +101,10 @@ public class HappyOrderLoginTest extends BaseTest {
     public void testLoginPageLoad() {
         printSectionHeader("Testing HappyOrder Login Page Load");
 
-        HappyOrderLoginPage loginPage = new HappyOrderLoginPage(driver);
+        HappyOrderLoginPage loginPage = new HappyOrderLoginPage(getDriver());
         loginPage.navigateToLoginPage();
 
-        ScreenshotUtils.captureScreenshot(driver, SCREENSHOT_PREFIX + "LoginPage");
+        ScreenshotUtils.captureScreenshot(getDriver(), SCREENSHOT_PREFIX + "LoginPage");
         printPageInfo(loginPage);
 
         Assert.assertTrue(loginPage.getCurrentUrl().contains("login"),
@@ -120,7 +122,7 @@ public class HappyOrderLoginTest extends BaseTest {
     private void performLogin(HappyOrderLoginPage loginPage, String username, String password)
             throws InterruptedException {
         loginPage.login(username, password);
-        Thread.sleep(PAGE_LOAD_WAIT);
+        WaitEngine.current().pageReady(Duration.ofMillis(PAGE_LOAD_WAIT));
     }
 
     // ==================== HELPER METHODS - SCREENSHOT ====================
@@ -130,7 +132,7 @@ public class HappyOrderLoginTest extends BaseTest {
      */
     private void captureScreenshotWithTitle(String title) {
         String screenshotName = sanitizeFileName(title);
-        ScreenshotUtils.captureScreenshot(driver, SCREENSHOT_PREFIX + screenshotName);
+        ScreenshotUtils.captureScreenshot(getDriver(), SCREENSHOT_PREFIX + screenshotName);
     }
 
     /**
@@ -269,7 +271,7 @@ public class HappyOrderLoginTest extends BaseTest {
 
         // Capture error screenshot
         String screenshotName = sanitizeFileName(title);
-        ScreenshotUtils.captureScreenshot(driver, SCREENSHOT_PREFIX + "Error_" + screenshotName);
+        ScreenshotUtils.captureScreenshot(getDriver(), SCREENSHOT_PREFIX + "Error_" + screenshotName);
 
         // Print page source for debugging
         printPageSourceDebug();
@@ -280,7 +282,7 @@ public class HappyOrderLoginTest extends BaseTest {
      */
     private void printPageSourceDebug() {
         System.out.println("\n--- Page Source (first 500 chars) ---");
-        String pageSource = driver.getPageSource();
+        String pageSource = getDriver().getPageSource();
         System.out.println(pageSource.substring(0, Math.min(500, pageSource.length())));
         System.out.println("--- End Page Source ---\n");
     }
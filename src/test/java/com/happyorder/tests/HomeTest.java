@@ -1,12 +1,15 @@
 package com.happyorder.tests;
 
 import com.happyorder.base.BaseTest;
+import com.happyorder.base.PageSnapshot;
 import com.happyorder.dataproviders.HomeDataProvider;
 import com.happyorder.helpers.BaseTestHelper;
 import com.happyorder.pages.HomePage;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.net.URI;
+
 /**
  * Test Class for Home Page functionality
  * Uses BaseTestHelper for common test operations
@@ -22,6 +25,13 @@ public class HomeTest extends BaseTest {
     private static final String HOME_SHEET = "TestData";
     private static final String SCREENSHOT_PREFIX = "Home_";
 
+    // Account used to open the home page already logged in (SessionStateCache logs it in once per run).
+    // The login page must be on the same origin as HomePage.HOME_URL for the cached session to apply.
+    private static final String LOGIN_URL = System.getProperty("login.url",
+            URI.create(HomePage.HOME_URL).resolve("/auth/login").toString());
+    private static final String HOME_USERNAME = System.getProperty("home.username");
+    private static final String HOME_PASSWORD = System.getProperty("home.password", "");
+
     // ==================== TEST METHODS ====================
 
     @Test(dataProvider = "homeTestData",
@@ -32,7 +42,7 @@ public class HomeTest extends BaseTest {
                                           String expectedElement, String expectedMessage, String result) {
         BaseTestHelper.printTestHeader(title, step, expectedMessage);
 
-        HomePage homePage = new HomePage(driver);
+        HomePage homePage = new HomePage();
         String testResult = "Failed";
         String actualMessage = "";
 
@@ -42,8 +52,8 @@ public class HomeTest extends BaseTest {
 
             // Wait and capture screenshot
             BaseTestHelper.waitForPageLoad();
-            BaseTestHelper.captureScreenshotWithTitle(driver, title, SCREENSHOT_PREFIX);
-            BaseTestHelper.printPageInfo(driver);
+            BaseTestHelper.captureScreenshotWithTitle(title, SCREENSHOT_PREFIX);
+            BaseTestHelper.printPageInfo();
 
             // Build message and determine result
             if (actionSuccess) {
@@ -64,7 +74,7 @@ public class HomeTest extends BaseTest {
             updateTestResult(title, testResult);
 
         } catch (Exception e) {
-            BaseTestHelper.handleTestException(driver, e, title, SCREENSHOT_PREFIX);
+            BaseTestHelper.handleTestException(e, title, SCREENSHOT_PREFIX);
             updateTestResult(title, "Failed");
             Assert.fail("Home page test failed with exception: " + e.getMessage());
         }
@@ -79,16 +89,16 @@ public class HomeTest extends BaseTest {
                                          String expectedElement, String expectedMessage, String result) throws InterruptedException {
         BaseTestHelper.printSmokeTestHeader(title, "Verification Test");
 
-        HomePage homePage = new HomePage(driver);
+        HomePage homePage = new HomePage();
 
         try {
-            homePage.navigateToHomePage();
+            openHomePage(homePage);
             BaseTestHelper.waitForPageLoad();
 
             boolean elementPresent = verifyElement(homePage, action, expectedElement);
 
-            BaseTestHelper.captureScreenshot(driver, SCREENSHOT_PREFIX + "Verification");
-            BaseTestHelper.printPageInfo(driver);
+            BaseTestHelper.captureScreenshot(SCREENSHOT_PREFIX + "Verification");
+            BaseTestHelper.printPageInfo();
 
             if (elementPresent) {
                 BaseTestHelper.printSuccess(expectedMessage);
@@ -99,7 +109,7 @@ public class HomeTest extends BaseTest {
             Assert.assertTrue(elementPresent, "Verification failed: " + expectedMessage);
 
         } catch (Exception e) {
-            BaseTestHelper.handleTestException(driver, e, title, SCREENSHOT_PREFIX);
+            BaseTestHelper.handleTestException(e, title, SCREENSHOT_PREFIX);
             throw e;
         }
     }
@@ -113,14 +123,14 @@ public class HomeTest extends BaseTest {
                                   String expectedElement, String expectedMessage, String result) throws InterruptedException {
         BaseTestHelper.printSmokeTestHeader("Home Page Load", "Quick verification");
 
-        HomePage homePage = new HomePage(driver);
+        HomePage homePage = new HomePage();
 
         try {
-            homePage.navigateToHomePage();
+            openHomePage(homePage);
             BaseTestHelper.waitForPageLoad();
 
-            BaseTestHelper.captureScreenshot(driver, SCREENSHOT_PREFIX + "PageLoad");
-            BaseTestHelper.printPageInfo(driver);
+            BaseTestHelper.captureScreenshot(SCREENSHOT_PREFIX + "PageLoad");
+            BaseTestHelper.printPageInfo();
 
             boolean isLoaded = homePage.isOnHomePage() && homePage.isDashboardLoaded();
 
@@ -133,7 +143,7 @@ public class HomeTest extends BaseTest {
             Assert.assertTrue(isLoaded, "Home page did not load correctly");
 
         } catch (Exception e) {
-            BaseTestHelper.handleTestException(driver, e, title, SCREENSHOT_PREFIX);
+            BaseTestHelper.handleTestException(e, title, SCREENSHOT_PREFIX);
             throw e;
         }
     }
@@ -148,7 +158,7 @@ public class HomeTest extends BaseTest {
             action = action.toLowerCase();
 
             if (action.contains("navigate")) {
-                homePage.navigateToHomePage();
+                openHomePage(homePage);
                 return homePage.isOnHomePage();
 
             } else if (action.contains("verify_title")) {
@@ -165,15 +175,15 @@ public class HomeTest extends BaseTest {
 
             } else if (action.contains("click_orders")) {
                 homePage.clickOrders();
-                return driver.getCurrentUrl().toLowerCase().contains("orders");
+                return getDriver().getCurrentUrl().toLowerCase().contains("orders");
 
             } else if (action.contains("click_products")) {
                 homePage.clickProducts();
-                return driver.getCurrentUrl().toLowerCase().contains("products");
+                return getDriver().getCurrentUrl().toLowerCase().contains("products");
 
             } else if (action.contains("click_settings")) {
                 homePage.clickSettings();
-                return driver.getCurrentUrl().toLowerCase().contains("settings");
+                return getDriver().getCurrentUrl().toLowerCase().contains("settings");
 
             } else if (action.contains("search_valid")) {
                 homePage.search("valid keyword");
@@ -186,11 +196,11 @@ public class HomeTest extends BaseTest {
 
             } else if (action.contains("logout")) {
                 homePage.logout();
-                return driver.getCurrentUrl().toLowerCase().contains("login");
+                return getDriver().getCurrentUrl().toLowerCase().contains("login");
 
             } else if (action.contains("navigate_no_auth")) {
                 // This would test unauthorized access
-                return driver.getCurrentUrl().toLowerCase().contains("login") ||
+                return getDriver().getCurrentUrl().toLowerCase().contains("login") ||
                        homePage.getMessageText().toLowerCase().contains("denied");
 
             } else {
@@ -211,14 +221,19 @@ public class HomeTest extends BaseTest {
         try {
             action = action.toLowerCase();
 
+            // All home page elements in one round trip; the per-element checks only run
+            // (with their check window) when the snapshot does not show the element yet
+            PageSnapshot snapshot = homePage.snapshot();
+            System.out.print("Home page elements:\n" + snapshot);
+
             if (action.contains("verify_title")) {
-                return homePage.isPageTitleDisplayed();
+                return snapshot.isDisplayed(HomePage.PAGE_TITLE) || homePage.isPageTitleDisplayed();
             } else if (action.contains("verify_menu")) {
-                return homePage.isMainMenuDisplayed();
+                return snapshot.isDisplayed(HomePage.MAIN_MENU) || homePage.isMainMenuDisplayed();
             } else if (action.contains("verify_welcome")) {
-                return homePage.isWelcomeMessageDisplayed();
+                return snapshot.isDisplayed(HomePage.WELCOME_MESSAGE) || homePage.isWelcomeMessageDisplayed();
             } else if (action.contains("verify_profile")) {
-                return homePage.isUserProfileDisplayed();
+                return snapshot.isDisplayed(HomePage.USER_PROFILE) || homePage.isUserProfileDisplayed();
             } else {
                 // Generic element check
                 return homePage.isElementPresent(expectedElement);
@@ -229,6 +244,17 @@ public class HomeTest extends BaseTest {
         }
     }
 
+    /**
+     * Open the home page, logged in with -Dhome.username/-Dhome.password when they are set
+     */
+    private void openHomePage(HomePage homePage) {
+        if (HOME_USERNAME != null) {
+            openLoggedIn(LOGIN_URL, HOME_USERNAME, HOME_PASSWORD, HomePage.HOME_URL);
+        } else {
+            homePage.navigateToHomePage();
+        }
+    }
+
     // ==================== HELPER METHODS - EXCEL OPERATIONS ====================
 
     /**
@@ -5,21 +5,21 @@ import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
 import com.happyorder.base.BaseTest;
+import com.happyorder.base.OutcomeRace;
 import com.happyorder.dataproviders.LoginDataProvider;
 import com.happyorder.pages.LoginPage;
 
 public class LoginTest extends BaseTest{
-    private LoginPage loginPage;
     private static final String REGISTER_URL = "http://10.110.10.183:20001/auth/login";
 
     @BeforeMethod(dependsOnMethods = "setUp")
     public void setupLoginPage() {
-        driver.get(REGISTER_URL);
-        loginPage = new LoginPage(driver);
+        getDriver().get(REGISTER_URL);
     }
 
     /** ================= TEST DATA-DRIVEN ================= */
-    @Test(dataProvider = "loginTestData",
+    // Các dòng dữ liệu chạy song song, mỗi thread một browser (data-provider-thread-count trong testng.xml)
+    @Test(dataProvider = "loginTestDataParallel",
           dataProviderClass = LoginDataProvider.class,
           priority = 3,
           description = "Test login to HappyOrder with Excel data")
@@ -33,13 +33,16 @@ public class LoginTest extends BaseTest{
         System.out.println("Expected Message: " + expectedMessage);
         System.out.println("========================================");
 
-        //Nhập dữ liệu
-        loginPage.inputTenDangNhap(username);
-        loginPage.inputMatKhau(password);
-        loginPage.clickbtnDangNhap();
+        // LoginPage tạo trong test để mỗi thread dùng session riêng
+        LoginPage loginPage = new LoginPage();
 
-        // Chờ một chút để trang xử lý
-        Thread.sleep(1000);
+        //Nhập dữ liệu và bấm đăng nhập trong một chuỗi Actions
+        //(-Dform.fastFill=true: điền cả form trong một lần gọi JS)
+        loginPage.loginAndSubmit(username, password);
+
+        // Chờ kết quả đầu tiên: rời trang login, toast thông báo hoặc viền đỏ validation
+        OutcomeRace.Result outcome = loginPage.waitForLoginOutcome();
+        System.out.println("Kết quả đăng nhập: " + outcome);
 
         // Kiểm tra kết quả dựa trên Expected Message
         if (expectedMessage != null && !expectedMessage.trim().isEmpty()) {